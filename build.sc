@@ -30,4 +30,14 @@ object zbase32 extends PublishBased with JavaModule {
     override def ivyDeps = Agg(ivy"org.scalatest::scalatest:3.0.5")
     def testFrameworks = Seq("org.scalatest.tools.Framework")
   }
+
+  /** JMH benchmarks, run with e.g. `mill zbase32.bench.run -prof gc CodecBenchmark` */
+  object bench extends JavaModule {
+    override def moduleDeps = Seq(zbase32)
+    override def ivyDeps = Agg(
+      ivy"org.openjdk.jmh:jmh-core:1.21",
+      ivy"org.openjdk.jmh:jmh-generator-annprocess:1.21"
+    )
+    override def mainClass = Some("org.openjdk.jmh.Main")
+  }
 }
@@ -0,0 +1,99 @@
+package org.apache.commons.codec.binary;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bytes allocated per {@link ZBase32#encode(byte[])}, {@link ZBase32#decode(byte[])} and
+ * {@link ZBase32#encodeAsString(byte[])} on small payloads, against commons-codec {@link Base32}, whose context
+ * buffer starts at 8 KiB whatever the payload. The session benchmarks reuse one {@link ZBase32Session} and should
+ * allocate nothing.
+ * <p>
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, e.g.
+ * {@code mill zbase32.bench.run -prof gc AllocationBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AllocationBenchmark {
+
+    @Param({"16", "32", "1024"})
+    int size;
+
+    /** 0 for no chunking, else the line length given to both codecs */
+    @Param({"0", "76"})
+    int lineLength;
+
+    private ZBase32 zbase32;
+    private Base32 base32;
+
+    private byte[] data;
+    private byte[] zbase32Encoded;
+    private byte[] base32Encoded;
+    private ZBase32Session.Encoder encoderSession;
+    private ZBase32Session.Decoder decoderSession;
+
+    @Setup
+    public void setup() {
+        zbase32 = new ZBase32(lineLength);
+        base32 = new Base32(lineLength);
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        zbase32Encoded = zbase32.encode(data);
+        base32Encoded = base32.encode(data);
+        encoderSession = zbase32.newEncoderSession();
+        decoderSession = zbase32.newDecoderSession();
+    }
+
+    @Benchmark
+    public byte[] zbase32Encode() {
+        return zbase32.encode(data);
+    }
+
+    @Benchmark
+    public String zbase32EncodeAsString() {
+        return zbase32.encodeAsString(data);
+    }
+
+    @Benchmark
+    public byte[] zbase32Decode() {
+        return zbase32.decode(zbase32Encoded);
+    }
+
+    @Benchmark
+    public ByteBuffer sessionEncode() {
+        return encoderSession.encode(data, 0, data.length);
+    }
+
+    @Benchmark
+    public ByteBuffer sessionDecode() {
+        return decoderSession.decode(zbase32Encoded, 0, zbase32Encoded.length);
+    }
+
+    @Benchmark
+    public byte[] base32Encode() {
+        return base32.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base32Decode() {
+        return base32.decode(base32Encoded);
+    }
+}
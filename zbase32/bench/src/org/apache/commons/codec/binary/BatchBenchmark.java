@@ -0,0 +1,64 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Encodes a batch of small ids one {@link ZBase32#encodeAsString(byte[])} call at a time, and with one
+ * {@link ZBase32#encodeBatch(byte[][])} call.
+ * <p>
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes allocated per batch.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({"16", "32"})
+    int idSize;
+
+    @Param({"10000"})
+    int batchSize;
+
+    private final ZBase32 codec = new ZBase32();
+
+    private byte[][] ids;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        ids = new byte[batchSize][idSize];
+        for (final byte[] id : ids) {
+            random.nextBytes(id);
+        }
+    }
+
+    @Benchmark
+    public void encodeAsString(final Blackhole bh) {
+        for (final byte[] id : ids) {
+            bh.consume(codec.encodeAsString(id));
+        }
+    }
+
+    @Benchmark
+    public ZBase32.Batch encodeBatch() {
+        return ZBase32.encodeBatch(ids);
+    }
+}
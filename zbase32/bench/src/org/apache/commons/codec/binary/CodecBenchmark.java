@@ -0,0 +1,103 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ZBase32} encode and decode through the byte[] and String entry points, with and without
+ * chunking, against commons-codec {@link Base32} and {@link Base64} as a baseline.
+ * <p>
+ * Run with {@code -prof gc} to also report {@code gc.alloc.rate.norm}, the bytes allocated per operation, e.g.
+ * {@code mill zbase32.bench.run -prof gc -p size=16,1024 CodecBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"5", "16", "32", "1024", "65536", "16777216"})
+    int size;
+
+    /** 0 for no chunking, else the line length given to every codec */
+    @Param({"0", "76"})
+    int lineLength;
+
+    private ZBase32 zbase32;
+    private Base32 base32;
+    private Base64 base64;
+
+    private byte[] data;
+    private byte[] zbase32Encoded;
+    private String zbase32String;
+    private byte[] base32Encoded;
+    private byte[] base64Encoded;
+
+    @Setup
+    public void setup() {
+        zbase32 = new ZBase32(lineLength);
+        base32 = new Base32(lineLength);
+        base64 = new Base64(lineLength);
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        zbase32Encoded = zbase32.encode(data);
+        zbase32String = zbase32.encodeToString(data);
+        base32Encoded = base32.encode(data);
+        base64Encoded = base64.encode(data);
+    }
+
+    @Benchmark
+    public byte[] zbase32Encode() {
+        return zbase32.encode(data);
+    }
+
+    @Benchmark
+    public String zbase32EncodeToString() {
+        return zbase32.encodeToString(data);
+    }
+
+    @Benchmark
+    public byte[] zbase32Decode() {
+        return zbase32.decode(zbase32Encoded);
+    }
+
+    @Benchmark
+    public byte[] zbase32DecodeString() {
+        return zbase32.decode(zbase32String);
+    }
+
+    @Benchmark
+    public byte[] base32Encode() {
+        return base32.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base32Decode() {
+        return base32.decode(base32Encoded);
+    }
+
+    @Benchmark
+    public byte[] base64Encode() {
+        return base64.encode(data);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return base64.decode(base64Encoded);
+    }
+}
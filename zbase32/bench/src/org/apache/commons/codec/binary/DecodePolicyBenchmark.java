@@ -0,0 +1,71 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ZBase32#decode(byte[], ZBase32.DecodePolicy)} under each {@link ZBase32.DecodePolicy}, on
+ * unchunked input and, for the policies accepting it, on input chunked into 76-character CRLF lines.
+ * <p>
+ * Run with e.g. {@code mill zbase32.bench.run -p size=1024 DecodePolicyBenchmark}.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DecodePolicyBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    int size;
+
+    private byte[] encoded;
+    private byte[] chunked;
+
+    @Setup
+    public void setup() {
+        final byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        encoded = new ZBase32().encode(data);
+        chunked = new ZBase32(76).encode(data);
+    }
+
+    @Benchmark
+    public byte[] strict() {
+        return ZBase32.decode(encoded, ZBase32.DecodePolicy.STRICT);
+    }
+
+    @Benchmark
+    public byte[] whitespaceOnly() {
+        return ZBase32.decode(encoded, ZBase32.DecodePolicy.WHITESPACE_ONLY);
+    }
+
+    @Benchmark
+    public byte[] lenient() {
+        return ZBase32.decode(encoded, ZBase32.DecodePolicy.LENIENT);
+    }
+
+    @Benchmark
+    public byte[] whitespaceOnlyChunked() {
+        return ZBase32.decode(chunked, ZBase32.DecodePolicy.WHITESPACE_ONLY);
+    }
+
+    @Benchmark
+    public byte[] lenientChunked() {
+        return ZBase32.decode(chunked, ZBase32.DecodePolicy.LENIENT);
+    }
+}
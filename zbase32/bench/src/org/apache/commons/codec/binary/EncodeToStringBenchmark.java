@@ -0,0 +1,60 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ZBase32#encodeToString(byte[])} with the inherited {@link BaseNCodec} route
+ * (Context, trimmed copy, then {@link StringUtils#newStringUtf8(byte[])}).
+ * <p>
+ * Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}, the bytes allocated per call.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodeToStringBenchmark {
+
+    @Param({"5", "16", "32", "1024"})
+    int size;
+
+    private final ZBase32 codec = new ZBase32();
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+    }
+
+    @Benchmark
+    public String encodeToString() {
+        return codec.encodeToString(data);
+    }
+
+    @Benchmark
+    public String baseNCodecEncodeToString() {
+        final BaseNCodec.Context context = new BaseNCodec.Context();
+        codec.encode(data, 0, data.length, context);
+        codec.encode(data, 0, BaseNCodec.EOF, context);
+        final byte[] buf = new byte[context.pos - context.readPos];
+        codec.readResults(buf, 0, buf.length, context);
+        return StringUtils.newStringUtf8(buf);
+    }
+}
@@ -0,0 +1,62 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of each {@link ZBase32Engine} on unchunked data, into preallocated arrays.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    @Param({"scalar", "swar", "pair"})
+    String engineName;
+
+    @Param({"32", "1024", "65536", "16777216"})
+    int size;
+
+    private ZBase32Engine engine;
+
+    private byte[] data;
+    private byte[] encoded;
+    private byte[] encodeOut;
+    private byte[] decodeOut;
+
+    @Setup
+    public void setup() {
+        engine = ZBase32Engine.forName(engineName);
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        encoded = new byte[(int) ZBase32.encodedLength(size, true)];
+        ZBase32.encode(data, 0, size, encoded, 0);
+        encodeOut = new byte[encoded.length];
+        decodeOut = new byte[size];
+    }
+
+    @Benchmark
+    public int encode() {
+        return engine.encode(data, 0, data.length, encodeOut, 0);
+    }
+
+    @Benchmark
+    public int decode() {
+        return engine.decode(encoded, 0, encoded.length, decodeOut, 0);
+    }
+}
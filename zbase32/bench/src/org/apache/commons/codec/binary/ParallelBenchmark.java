@@ -0,0 +1,88 @@
+package org.apache.commons.codec.binary;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ZBase32#parallelEncode(byte[], ForkJoinPool, int)} and
+ * {@link ZBase32#parallelDecode(byte[], ForkJoinPool, int)} on the common pool with the serial static methods, to
+ * pick {@link ZBase32#DEFAULT_PARALLEL_THRESHOLD} for a machine.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+
+    @Param({"65536", "1048576", "16777216"})
+    int size;
+
+    private byte[] data;
+    private byte[] encoded;
+    private byte[] chunked;
+    /** {@link #chunked} with one extra space in its first line after the middle, which fails the line layout */
+    private byte[] irregular;
+
+    @Setup
+    public void setup() {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        encoded = new ZBase32().encode(data);
+        chunked = new ZBase32(76).encode(data);
+        final int mid = chunked.length / 2;
+        irregular = new byte[chunked.length + 1];
+        System.arraycopy(chunked, 0, irregular, 0, mid);
+        irregular[mid] = ' ';
+        System.arraycopy(chunked, mid, irregular, mid + 1, chunked.length - mid);
+    }
+
+    @Benchmark
+    public byte[] serialEncode() {
+        return ZBase32.parallelEncode(data, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] parallelEncode() {
+        return ZBase32.parallelEncode(data, ForkJoinPool.commonPool(), 0);
+    }
+
+    @Benchmark
+    public byte[] serialDecode() {
+        return ZBase32.parallelDecode(encoded, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] parallelDecode() {
+        return ZBase32.parallelDecode(encoded, ForkJoinPool.commonPool(), 0);
+    }
+
+    @Benchmark
+    public byte[] serialDecodeChunked() {
+        return ZBase32.parallelDecode(chunked, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public byte[] parallelDecodeChunked() {
+        return ZBase32.parallelDecode(chunked, ForkJoinPool.commonPool(), 0);
+    }
+
+    @Benchmark
+    public byte[] parallelDecodeIrregular() {
+        return ZBase32.parallelDecode(irregular, ForkJoinPool.commonPool(), 0);
+    }
+}
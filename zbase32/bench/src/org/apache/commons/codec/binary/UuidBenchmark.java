@@ -0,0 +1,67 @@
+package org.apache.commons.codec.binary;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link ZBase32#encodeUuid(UUID)} / {@link ZBase32#decodeUuid(CharSequence)} with packing the UUID into
+ * 16 bytes and going through {@link ZBase32#encodeAsString(byte[])} / {@link ZBase32#decode(String)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UuidBenchmark {
+
+    private final ZBase32 codec = new ZBase32();
+
+    private UUID uuid;
+    private String encoded;
+    private String encodedBytes;
+
+    @Setup
+    public void setup() {
+        uuid = UUID.randomUUID();
+        encoded = ZBase32.encodeUuid(uuid);
+        encodedBytes = bytesEncodeAsString();
+    }
+
+    @Benchmark
+    public String encodeUuid() {
+        return ZBase32.encodeUuid(uuid);
+    }
+
+    @Benchmark
+    public String bytesEncodeAsString() {
+        final byte[] bytes = ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+        return codec.encodeAsString(bytes);
+    }
+
+    @Benchmark
+    public UUID decodeUuid() {
+        return ZBase32.decodeUuid(encoded);
+    }
+
+    @Benchmark
+    public UUID bytesDecode() {
+        final ByteBuffer bytes = ByteBuffer.wrap(codec.decode(encodedBytes));
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+}
@@ -1,5 +1,14 @@
 package org.apache.commons.codec.binary;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.CoderResult;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class ZBase32 extends BaseNCodec {
 
     /**
@@ -57,11 +66,50 @@ public class ZBase32 extends BaseNCodec {
             -1, 24,  1, 12,  3,  8,  5,  6, 28, 21,  9, 10, -1, 11,  2, 16,
             13, 14,  4, 22, 17, 19, -1, 20, 15,  0, 23,
     };
-    private static final byte[] encodeTable = {
+
+    /**
+     * {@link #decodeTable} widened to all 256 octet values, so it can be indexed with {@code b & 0xff} without a
+     * range check. Non-alphabet octets map to -1. Package private for access from {@link ZBase32Engine}.
+     */
+    static final byte[] octetDecodeTable = new byte[256];
+
+    static {
+        Arrays.fill(octetDecodeTable, (byte) -1);
+        System.arraycopy(decodeTable, 0, octetDecodeTable, 0, decodeTable.length);
+    }
+
+    /**
+     * The z-base-32 alphabet, indexed by 5-bit value. Package private for access from {@link ZBase32Engine}.
+     */
+    static final byte[] encodeTable = {
             'y','b','n','d','r','f','g','8','e','j','k','m','c','p','q','x',
             'o','t','1','u','w','i','s','z','a','3','4','5','h','7','6','9',
     };
 
+    /** Characters needed for the 64 bits of a long: 12 * 5 + 4 */
+    private static final int LONG_ENCODED_LENGTH = 13;
+
+    /** Characters needed for the 32 bits of an int: 6 * 5 + 2 */
+    private static final int INT_ENCODED_LENGTH = 7;
+
+    /** Characters needed for 128 bits: 25 * 5 + 3 */
+    private static final int UUID_ENCODED_LENGTH = 26;
+
+    /**
+     * Inputs shorter than this many bytes are coded on the calling thread by {@link #parallelEncode(byte[],
+     * ForkJoinPool)} and {@link #parallelDecode(byte[], ForkJoinPool)}: 1 MiB.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    /** Blocks coded by one fork/join task, 40 KiB of binary data */
+    private static final int PARALLEL_TASK_BLOCKS = 1 << 13;
+
+    /** Line separator of unchunked data, which the parallel decoder splits into lines of one block */
+    private static final byte[] NO_SEPARATOR = {};
+
+    /** Stands for the pad of an unpadded codec: no byte or char equals it, so no pad is written or stopped at */
+    private static final int NO_PAD = -1 << 8;
+
     /** Mask used to extract 5 bits, used when encoding Base32 bytes */
     private static final int MASK_5BITS = 0x1f;
 
@@ -74,12 +122,6 @@ public class ZBase32 extends BaseNCodec {
      * Bitwise operations store and extract the encoding or decoding from this variable.
      */
 
-    /**
-     * Convenience variable to help us determine when our buffer is going to run out of room and needs resizing.
-     * <code>decodeSize = {@link #BYTES_PER_ENCODED_BLOCK} - 1 + lineSeparator.length;</code>
-     */
-    private final int decodeSize;
-
     /**
      * Convenience variable to help us determine when our buffer is going to run out of room and needs resizing.
      * <code>encodeSize = {@link #BYTES_PER_ENCODED_BLOCK} + lineSeparator.length;</code>
@@ -91,6 +133,11 @@ public class ZBase32 extends BaseNCodec {
      */
     private final byte[] lineSeparator;
 
+    /**
+     * The pad written after the last partial block and ending decoding, or {@link #NO_PAD} if this codec is unpadded.
+     */
+    private final int padding;
+
     /**
      * Creates a Base32 codec used for decoding and encoding.
      * <p>
@@ -160,8 +207,37 @@ public class ZBase32 extends BaseNCodec {
      *             lineLength &gt; 0 and lineSeparator is null.
      */
     public ZBase32(final int lineLength, final byte[] lineSeparator, final byte pad) {
+        this(lineLength, lineSeparator, pad, true);
+    }
+
+    /**
+     * Creates a Base32 codec used for decoding and encoding, padded or not.
+     * <p>
+     * Canonical z-base-32 is unpadded: an unpadded codec writes only the significant characters of the last partial
+     * block, and when decoding treats {@link #PAD_DEFAULT} like any other non-Base32 character instead of stopping
+     * at it, so its decode loop never compares against the pad. Padded input still decodes the same.
+     * </p>
+     *
+     * @param lineLength
+     *            Each line of encoded data will be at most of the given length (rounded down to nearest multiple of
+     *            8). If lineLength &lt;= 0, then the output will not be divided into lines (chunks). Ignored when
+     *            decoding.
+     * @param lineSeparator
+     *            Each line of encoded data will end with this sequence of bytes.
+     * @param padded
+     *            whether to pad the last partial block with {@link #PAD_DEFAULT} and stop decoding at it.
+     * @throws IllegalArgumentException
+     *             The provided lineSeparator included some Base32 characters. That's not going to work! Or the
+     *             lineLength &gt; 0 and lineSeparator is null.
+     */
+    public ZBase32(final int lineLength, final byte[] lineSeparator, final boolean padded) {
+        this(lineLength, lineSeparator, PAD_DEFAULT, padded);
+    }
+
+    private ZBase32(final int lineLength, final byte[] lineSeparator, final byte pad, final boolean padded) {
         super(BYTES_PER_UNENCODED_BLOCK, BYTES_PER_ENCODED_BLOCK, lineLength,
                 lineSeparator == null ? 0 : lineSeparator.length, pad);
+        this.padding = padded ? pad : NO_PAD;
         if (lineLength > 0) {
             if (lineSeparator == null) {
                 throw new IllegalArgumentException("lineLength " + lineLength + " > 0, but lineSeparator is null");
@@ -178,7 +254,6 @@ public class ZBase32 extends BaseNCodec {
             this.encodeSize = BYTES_PER_ENCODED_BLOCK;
             this.lineSeparator = null;
         }
-        this.decodeSize = this.encodeSize - 1;
 
         if (isInAlphabet(pad) || isWhiteSpace(pad)) {
             throw new IllegalArgumentException("pad must not be in alphabet or whitespace");
@@ -186,223 +261,2365 @@ public class ZBase32 extends BaseNCodec {
     }
 
     /**
+     * Encodes {@code len} bytes of {@code src} starting at {@code off} straight into {@code dst} starting at
+     * {@code dstOff}, padded with {@link #PAD_DEFAULT} and without chunking. This is the same output as
+     * {@code new ZBase32().encode(src, off, len)}, but no {@link Context} or intermediate buffer is allocated.
+     *
+     * @param src
+     *            byte[] array of binary data to Base32 encode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to encode.
+     * @param dst
+     *            Array to write the Base32 characters to. Must have room for
+     *            {@link #encodedLength(int, boolean) encodedLength(len, true)} bytes after {@code dstOff}.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException
+     *             if {@code dst} has not enough room for the encoded data.
+     */
+    public static int encode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+        final long size = encodedLength(len, true);
+        if (dst.length - dstOff < size) {
+            throw new IllegalArgumentException("dst has room for " + (dst.length - dstOff)
+                    + " bytes, but encoding " + len + " bytes needs " + size);
+        }
+        return encode(src, off, len, dst, dstOff, PAD_DEFAULT);
+    }
+
+    /**
+     * Encodes without chunking straight into {@code dst}, which must be large enough.
+     *
+     * @param pad
+     *            the pad, or {@link #NO_PAD} to write only the significant characters.
+     * @return the number of bytes written to {@code dst}
+     */
+    private static int encode(final byte[] src, int off, final int len, final byte[] dst, final int dstOff,
+                              final int pad) {
+        final int blocks = len / BYTES_PER_UNENCODED_BLOCK;
+        final int modulus = len - blocks * BYTES_PER_UNENCODED_BLOCK;
+        int pos = dstOff;
+        for (int n = 0; n < blocks; n++) {
+            pos = encodeBlock(readBlock(src, off), dst, pos);
+            off += BYTES_PER_UNENCODED_BLOCK;
+        }
+        long work = 0;
+        for (int n = 0; n < modulus; n++) {
+            work = (work << 8) | (src[off++] & MASK_8BITS);
+        }
+        return encodeTail(work, modulus, dst, pos, pad) - dstOff;
+    }
+
+    /**
+     * Decodes {@code len} bytes of {@code src} starting at {@code off} straight into {@code dst} starting at
+     * {@code dstOff}. No {@link Context} or intermediate buffer is allocated.
      * <p>
-     * Decodes all of the provided data, starting at inPos, for inAvail bytes. Should be called at least twice: once
-     * with the data to decode, and once with inAvail set to "-1" to alert decoder that EOF has been reached. The "-1"
-     * call is not necessary when decoding, but it doesn't hurt, either.
-     * </p>
-     * <p>
-     * Ignores all non-Base32 characters. This is how chunked (e.g. 76 character) data is handled, since CR and LF are
-     * silently ignored, but has implications for other bytes, too. This method subscribes to the garbage-in,
-     * garbage-out philosophy: it will not check the provided data for validity.
+     * Like {@code new ZBase32().decode(byte[])}, all non-Base32 characters are ignored and decoding stops at the first
+     * {@link #PAD_DEFAULT} character.
      * </p>
      *
-     * @param in
+     * @param src
      *            byte[] array of ascii data to Base32 decode.
-     * @param inPos
+     * @param off
      *            Position to start reading data from.
-     * @param inAvail
-     *            Amount of bytes available from input for encoding.
-     * @param context the context to be used
+     * @param len
+     *            Amount of bytes to decode.
+     * @param dst
+     *            Array to write the decoded bytes to. Must have room for
+     *            {@link #decodedLength(byte[], int, int) decodedLength(src, off, len)} bytes after {@code dstOff}.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException
+     *             if {@code dst} has not enough room for the decoded data; nothing is written then.
+     */
+    public static int decode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+        checkDecodeRoom(src, off, len, dst, dstOff);
+        return decode(src, off, len, dst, dstOff, PAD_DEFAULT);
+    }
+
+    /**
+     * Decodes straight into {@code dst}, which must be large enough, stopping at {@code pad} unless it is
+     * {@link #NO_PAD}. Package private for access from {@link ZBase32Engine}.
      *
-     * Output is written to {@link Context#buffer} as 8-bit octets, using {@link Context#pos} as the buffer position
+     * @return the number of bytes written to {@code dst}
      */
-    @Override
-    void decode(final byte[] in, int inPos, final int inAvail, final Context context) {
-        // package protected for access from I/O streams
+    static int decode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff,
+                      final int pad) {
+        final int end = off + len;
+        int pos = dstOff;
+        long work = 0;
+        int modulus = 0;
+        int i = off;
+        while (i < end) {
+            if (modulus == 0 && end - i >= BYTES_PER_ENCODED_BLOCK) {
+                final long block = decodeBlock(src, i);
+                if (block >= 0) {
+                    pos = writeBlock(block, dst, pos);
+                    i += BYTES_PER_ENCODED_BLOCK;
+                    continue;
+                }
+            }
+            final byte b = src[i++];
+            if (b == pad) {
+                break;
+            }
+            final int result = octetDecodeTable[b & MASK_8BITS];
+            if (result >= 0) {
+                work = (work << BITS_PER_ENCODED_BYTE) | result;
+                if (++modulus == BYTES_PER_ENCODED_BLOCK) {
+                    pos = writeBlock(work, dst, pos);
+                    modulus = 0;
+                }
+            }
+        }
+        return decodeTail(work, modulus, dst, pos) - dstOff;
+    }
 
-        if (context.eof) {
-            return;
+    /**
+     * Returns the decoded length of {@code len} characters if all of them are Base32 characters, an upper bound for
+     * any input. A destination with that much room needs no exact count.
+     */
+    private static long maxDecodedLength(final int len) {
+        return len * (long) BITS_PER_ENCODED_BYTE / 8;
+    }
+
+    /**
+     * Returns the size of an array that any decoding of the given range fits in: the upper bound for its characters
+     * up to the last Base32 one, so trailing pads and a final line separator do not count. That is exact for input
+     * without separators in between, padded or not, and only looks at the end of the input.
+     */
+    private static int decodeBufferSize(final byte[] src, final int off, int len) {
+        while (len > 0 && octetDecodeTable[src[off + len - 1] & MASK_8BITS] < 0) {
+            len--;
         }
-        if (inAvail < 0) {
-            context.eof = true;
+        return (int) maxDecodedLength(len);
+    }
+
+    /**
+     * Returns the size of an array that any decoding of the given range fits in, see
+     * {@link #decodeBufferSize(byte[], int, int)}.
+     */
+    private static int decodeBufferSize(final char[] src, final int off, int len) {
+        while (len > 0 && decodeChar(src[off + len - 1]) < 0) {
+            len--;
         }
-        for (int i = 0; i < inAvail; i++) {
-            final byte b = in[inPos++];
-            if (b == pad) {
-                // We're done.
-                context.eof = true;
+        return (int) maxDecodedLength(len);
+    }
+
+    /**
+     * Returns the size of an array that any decoding of {@code src} fits in, see
+     * {@link #decodeBufferSize(byte[], int, int)}.
+     */
+    private static int decodeBufferSize(final CharSequence src) {
+        int len = src.length();
+        while (len > 0 && decodeChar(src.charAt(len - 1)) < 0) {
+            len--;
+        }
+        return (int) maxDecodedLength(len);
+    }
+
+    /**
+     * Checks that {@code dst} has room after {@code dstOff} for decoding the given range of {@code src}. The exact
+     * decoded length is only counted when the upper bound does not fit. Package private for access from
+     * {@link ZBase32Engine}.
+     */
+    static void checkDecodeRoom(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+        final int room = dst.length - dstOff;
+        if (room < maxDecodedLength(len)) {
+            checkDecodeRoom(room, decodedLength(src, off, len));
+        }
+    }
+
+    /**
+     * Throws, like the static encode methods do, if {@code room} is less than the decoded length {@code size}.
+     */
+    private static void checkDecodeRoom(final int room, final int size) {
+        if (room < size) {
+            throw new IllegalArgumentException("dst has room for " + room + " bytes, but decoding needs " + size);
+        }
+    }
+
+    /**
+     * Returns the exact number of characters that encoding {@code bytes} bytes produces, without chunking.
+     *
+     * @param bytes
+     *            Amount of bytes to encode.
+     * @param padded
+     *            whether the last partial block is padded to 8 characters, as {@link #encode(byte[])} does, or
+     *            only its significant characters are written.
+     * @return the encoded length
+     */
+    public static long encodedLength(final int bytes, final boolean padded) {
+        if (padded) {
+            return (bytes + (long) BYTES_PER_UNENCODED_BLOCK - 1) / BYTES_PER_UNENCODED_BLOCK * BYTES_PER_ENCODED_BLOCK;
+        }
+        return (bytes * 8L + BITS_PER_ENCODED_BYTE - 1) / BITS_PER_ENCODED_BYTE;
+    }
+
+    /**
+     * Returns the exact number of bytes that {@code new ZBase32(lineLength, lineSeparator, pad)} emits when encoding
+     * {@code bytes} bytes, including the line separators.
+     *
+     * @param bytes
+     *            Amount of bytes to encode.
+     * @param padded
+     *            whether the last partial block is padded to 8 characters.
+     * @param lineLength
+     *            the line length as given to the constructor; it is rounded down to a multiple of 8 the same way.
+     * @param lineSeparatorLength
+     *            the length of the line separator, 0 if there is none.
+     * @return the encoded length
+     */
+    public static long encodedLength(final int bytes, final boolean padded, final int lineLength,
+                                     final int lineSeparatorLength) {
+        final long len = encodedLength(bytes, padded);
+        final int chunk = lineLength / BYTES_PER_ENCODED_BLOCK * BYTES_PER_ENCODED_BLOCK;
+        if (len == 0 || lineSeparatorLength <= 0 || chunk <= 0) {
+            return len;
+        }
+        // a separator follows every full line, and the last line even if partial
+        final long blockChars = encodedLength(bytes, true);
+        return len + (blockChars + chunk - 1) / chunk * lineSeparatorLength;
+    }
+
+    /**
+     * Returns the exact number of bytes that {@link #decode(byte[])} produces for {@code encoded}: the Base32
+     * characters before the first {@link #PAD_DEFAULT} are counted, all other characters are ignored.
+     *
+     * @param encoded
+     *            byte[] array of ascii data to Base32 decode.
+     * @return the decoded length
+     */
+    public static int decodedLength(final byte[] encoded) {
+        return decodedLength(encoded, 0, encoded.length);
+    }
+
+    /**
+     * Returns the exact number of bytes that {@link #decode(byte[], int, int, byte[], int)} writes for the given
+     * range of {@code encoded}.
+     *
+     * @param encoded
+     *            byte[] array of ascii data to Base32 decode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to decode.
+     * @return the decoded length
+     */
+    public static int decodedLength(final byte[] encoded, final int off, final int len) {
+        long chars = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            final byte b = encoded[i];
+            if (b == PAD_DEFAULT) {
                 break;
             }
-            final byte[] buffer = ensureBufferSize(decodeSize, context);
-            if (b >= 0 && b < this.decodeTable.length) {
-                final int result = this.decodeTable[b];
-                if (result >= 0) {
-                    context.modulus = (context.modulus+1) % BYTES_PER_ENCODED_BLOCK;
-                    // collect decoded bytes
-                    context.lbitWorkArea = (context.lbitWorkArea << BITS_PER_ENCODED_BYTE) + result;
-                    if (context.modulus == 0) { // we can output the 5 bytes
-                        buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 32) & MASK_8BITS);
-                        buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 24) & MASK_8BITS);
-                        buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 16) & MASK_8BITS);
-                        buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
-                        buffer[context.pos++] = (byte) (context.lbitWorkArea & MASK_8BITS);
-                    }
-                }
+            if (octetDecodeTable[b & MASK_8BITS] >= 0) {
+                chars++;
             }
         }
+        return (int) (chars * BITS_PER_ENCODED_BYTE / 8);
+    }
 
-        // Two forms of EOF as far as Base32 decoder is concerned: actual
-        // EOF (-1) and first time '=' character is encountered in stream.
-        // This approach makes the '=' padding characters completely optional.
-        if (context.eof && context.modulus >= 2) { // if modulus < 2, nothing to do
-            final byte[] buffer = ensureBufferSize(decodeSize, context);
+    /**
+     * Returns the exact number of bytes that {@link #decode(String)} produces for {@code encoded}.
+     *
+     * @param encoded
+     *            the Base32 characters to decode.
+     * @return the decoded length
+     * @see #decodedLength(byte[])
+     */
+    public static int decodedLength(final CharSequence encoded) {
+        long chars = 0;
+        for (int i = 0, end = encoded.length(); i < end; i++) {
+            final char c = encoded.charAt(i);
+            if (c == PAD_DEFAULT) {
+                break;
+            }
+            if (decodeChar(c) >= 0) {
+                chars++;
+            }
+        }
+        return (int) (chars * BITS_PER_ENCODED_BYTE / 8);
+    }
 
-            //  we ignore partial bytes, i.e. only multiples of 8 count
-            switch (context.modulus) {
-                case 2 : // 10 bits, drop 2 and output one byte
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 2) & MASK_8BITS);
-                    break;
-                case 3 : // 15 bits, drop 7 and output 1 byte
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 7) & MASK_8BITS);
-                    break;
-                case 4 : // 20 bits = 2*8 + 4
-                    context.lbitWorkArea = context.lbitWorkArea >> 4; // drop 4 bits
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea) & MASK_8BITS);
-                    break;
-                case 5 : // 25bits = 3*8 + 1
-                    context.lbitWorkArea = context.lbitWorkArea >> 1;
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 16) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea) & MASK_8BITS);
-                    break;
-                case 6 : // 30bits = 3*8 + 6
-                    context.lbitWorkArea = context.lbitWorkArea >> 6;
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 16) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea) & MASK_8BITS);
-                    break;
-                case 7 : // 35 = 4*8 +3
-                    context.lbitWorkArea = context.lbitWorkArea >> 3;
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 24) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 16) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
-                    buffer[context.pos++] = (byte) ((context.lbitWorkArea) & MASK_8BITS);
-                    break;
-                default:
-                    // modulus can be 0-7, and we excluded 0,1 already
-                    throw new IllegalStateException("Impossible modulus "+context.modulus);
+    /**
+     * Returns the exact number of bytes that {@link #decode(char[], int, int)} produces for the given range of
+     * {@code encoded}.
+     *
+     * @param encoded
+     *            the Base32 characters to decode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of characters to decode.
+     * @return the decoded length
+     * @see #decodedLength(byte[])
+     */
+    public static int decodedLength(final char[] encoded, final int off, final int len) {
+        long chars = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            final char c = encoded[i];
+            if (c == PAD_DEFAULT) {
+                break;
+            }
+            if (decodeChar(c) >= 0) {
+                chars++;
             }
         }
+        return (int) (chars * BITS_PER_ENCODED_BYTE / 8);
     }
 
     /**
+     * Decodes a CharSequence of Base32 characters without converting it to bytes first. The result is allocated for
+     * the longest possible decoding, which is exact for input without separators, and only copied when decoding came
+     * out shorter.
      * <p>
-     * Encodes all of the provided data, starting at inPos, for inAvail bytes. Must be called at least twice: once with
-     * the data to encode, and once with inAvail set to "-1" to alert encoder that EOF has been reached, so flush last
-     * remaining bytes (if not multiple of 5).
+     * Not an overload of {@code decode}: for a String argument Java resolves that name to the inherited instance
+     * method {@link #decode(String)}, so a static call would not compile.
      * </p>
      *
-     * @param in
-     *            byte[] array of binary data to Base32 encode.
-     * @param inPos
+     * @param src
+     *            the Base32 characters to decode.
+     * @return the decoded bytes
+     * @see #decode(byte[], int, int, byte[], int)
+     */
+    public static byte[] decodeChars(final CharSequence src) {
+        final byte[] dst = new byte[decodeBufferSize(src)];
+        final int n = decode(src, 0, src.length(), dst, 0, PAD_DEFAULT);
+        return n == dst.length ? dst : Arrays.copyOf(dst, n);
+    }
+
+    /**
+     * Decodes a range of a char[] of Base32 characters without converting it to bytes first. The result is allocated
+     * like in {@link #decodeChars(CharSequence)}.
+     *
+     * @param src
+     *            the Base32 characters to decode.
+     * @param off
      *            Position to start reading data from.
-     * @param inAvail
-     *            Amount of bytes available from input for encoding.
-     * @param context the context to be used
+     * @param len
+     *            Amount of characters to decode.
+     * @return the decoded bytes
+     * @see #decode(byte[], int, int, byte[], int)
      */
-    @Override
-    void encode(final byte[] in, int inPos, final int inAvail, final Context context) {
-        // package protected for access from I/O streams
+    public static byte[] decode(final char[] src, final int off, final int len) {
+        final byte[] dst = new byte[decodeBufferSize(src, off, len)];
+        final int n = decode(src, off, len, dst, 0, PAD_DEFAULT);
+        return n == dst.length ? dst : Arrays.copyOf(dst, n);
+    }
 
-        if (context.eof) {
-            return;
+    /**
+     * Decodes a CharSequence of Base32 characters straight into {@code dst}, allocating nothing.
+     *
+     * @param src
+     *            the Base32 characters to decode.
+     * @param dst
+     *            Array to write the decoded bytes to. Must have room for
+     *            {@link #decodedLength(CharSequence) decodedLength(src)} bytes after {@code dstOff}.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException
+     *             if {@code dst} has not enough room for the decoded data; nothing is written then.
+     * @see #decode(byte[], int, int, byte[], int)
+     */
+    public static int decodeChars(final CharSequence src, final byte[] dst, final int dstOff) {
+        final int room = dst.length - dstOff;
+        if (room < maxDecodedLength(src.length())) {
+            checkDecodeRoom(room, decodedLength(src));
         }
-        // inAvail < 0 is how we're informed of EOF in the underlying data we're
-        // encoding.
-        if (inAvail < 0) {
-            context.eof = true;
-            if (0 == context.modulus && lineLength == 0) {
-                return; // no leftovers to process and not using chunking
-            }
-            final byte[] buffer = ensureBufferSize(encodeSize, context);
-            final int savedPos = context.pos;
-            switch (context.modulus) { // % 5
-                case 0 :
-                    break;
-                case 1 : // Only 1 octet; take top 5 bits then remainder
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 3) & MASK_5BITS]; // 8-1*5 = 3
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea << 2) & MASK_5BITS]; // 5-3=2
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    break;
-                case 2 : // 2 octets = 16 bits to use
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 11) & MASK_5BITS]; // 16-1*5 = 11
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  6) & MASK_5BITS]; // 16-2*5 = 6
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  1) & MASK_5BITS]; // 16-3*5 = 1
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea <<  4) & MASK_5BITS]; // 5-1 = 4
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    break;
-                case 3 : // 3 octets = 24 bits to use
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 19) & MASK_5BITS]; // 24-1*5 = 19
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 14) & MASK_5BITS]; // 24-2*5 = 14
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  9) & MASK_5BITS]; // 24-3*5 = 9
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  4) & MASK_5BITS]; // 24-4*5 = 4
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea <<  1) & MASK_5BITS]; // 5-4 = 1
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    buffer[context.pos++] = pad;
-                    break;
-                case 4 : // 4 octets = 32 bits to use
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 27) & MASK_5BITS]; // 32-1*5 = 27
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 22) & MASK_5BITS]; // 32-2*5 = 22
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 17) & MASK_5BITS]; // 32-3*5 = 17
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 12) & MASK_5BITS]; // 32-4*5 = 12
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  7) & MASK_5BITS]; // 32-5*5 =  7
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >>  2) & MASK_5BITS]; // 32-6*5 =  2
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea <<  3) & MASK_5BITS]; // 5-2 = 3
-                    buffer[context.pos++] = pad;
-                    break;
-                default:
-                    throw new IllegalStateException("Impossible modulus "+context.modulus);
+        return decode(src, 0, src.length(), dst, dstOff, PAD_DEFAULT);
+    }
+
+    /**
+     * Decodes a range of a char[] of Base32 characters straight into {@code dst}, allocating nothing.
+     *
+     * @param src
+     *            the Base32 characters to decode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of characters to decode.
+     * @param dst
+     *            Array to write the decoded bytes to. Must have room for
+     *            {@link #decodedLength(char[], int, int) decodedLength(src, off, len)} bytes after {@code dstOff}.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException
+     *             if {@code dst} has not enough room for the decoded data; nothing is written then.
+     * @see #decode(byte[], int, int, byte[], int)
+     */
+    public static int decode(final char[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+        final int room = dst.length - dstOff;
+        if (room < maxDecodedLength(len)) {
+            checkDecodeRoom(room, decodedLength(src, off, len));
+        }
+        return decode(src, off, len, dst, dstOff, PAD_DEFAULT);
+    }
+
+    /**
+     * Decodes a range of a char[] straight into {@code dst}, which must be large enough, stopping at {@code pad}.
+     *
+     * @return the number of bytes written to {@code dst}
+     */
+    private static int decode(final char[] src, final int off, final int len, final byte[] dst, final int dstOff,
+                              final int pad) {
+        final int end = off + len;
+        int pos = dstOff;
+        long work = 0;
+        int modulus = 0;
+        int i = off;
+        while (i < end) {
+            if (modulus == 0 && end - i >= BYTES_PER_ENCODED_BLOCK) {
+                final long block = decodeBlock(src, i);
+                if (block >= 0) {
+                    pos = writeBlock(block, dst, pos);
+                    i += BYTES_PER_ENCODED_BLOCK;
+                    continue;
+                }
             }
-            context.currentLinePos += context.pos - savedPos; // keep track of current line position
-            // if currentPos == 0 we are at the start of a line, so don't add CRLF
-            if (lineLength > 0 && context.currentLinePos > 0){ // add chunk separator if required
-                System.arraycopy(lineSeparator, 0, buffer, context.pos, lineSeparator.length);
-                context.pos += lineSeparator.length;
+            final char c = src[i++];
+            if (c == pad) {
+                break;
             }
-        } else {
-            for (int i = 0; i < inAvail; i++) {
-                final byte[] buffer = ensureBufferSize(encodeSize, context);
-                context.modulus = (context.modulus+1) % BYTES_PER_UNENCODED_BLOCK;
-                int b = in[inPos++];
-                if (b < 0) {
-                    b += 256;
-                }
-                context.lbitWorkArea = (context.lbitWorkArea << 8) + b; // BITS_PER_BYTE
-                if (0 == context.modulus) { // we have enough bytes to create our output
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 35) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 30) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 25) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 20) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 15) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 10) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 5) & MASK_5BITS];
-                    buffer[context.pos++] = encodeTable[(int)context.lbitWorkArea & MASK_5BITS];
-                    context.currentLinePos += BYTES_PER_ENCODED_BLOCK;
-                    if (lineLength > 0 && lineLength <= context.currentLinePos) {
-                        System.arraycopy(lineSeparator, 0, buffer, context.pos, lineSeparator.length);
-                        context.pos += lineSeparator.length;
-                        context.currentLinePos = 0;
-                    }
+            final int result = decodeChar(c);
+            if (result >= 0) {
+                work = (work << BITS_PER_ENCODED_BYTE) | result;
+                if (++modulus == BYTES_PER_ENCODED_BLOCK) {
+                    pos = writeBlock(work, dst, pos);
+                    modulus = 0;
                 }
             }
         }
+        return decodeTail(work, modulus, dst, pos) - dstOff;
     }
 
     /**
-     * Returns whether or not the {@code octet} is in the Base32 alphabet.
+     * Decodes a range of a CharSequence straight into {@code dst}, stopping at {@code pad} unless it is
+     * {@link #NO_PAD}.
      *
-     * @param octet
+     * @return the number of bytes written to {@code dst}
+     */
+    private static int decode(final CharSequence src, final int off, final int len, final byte[] dst,
+                              final int dstOff, final int pad) {
+        final int end = off + len;
+        int pos = dstOff;
+        long work = 0;
+        int modulus = 0;
+        int i = off;
+        while (i < end) {
+            if (modulus == 0 && end - i >= BYTES_PER_ENCODED_BLOCK) {
+                final long block = decodeBlock(src, i);
+                if (block >= 0) {
+                    pos = writeBlock(block, dst, pos);
+                    i += BYTES_PER_ENCODED_BLOCK;
+                    continue;
+                }
+            }
+            final char c = src.charAt(i++);
+            if (c == pad) {
+                break;
+            }
+            final int result = decodeChar(c);
+            if (result >= 0) {
+                work = (work << BITS_PER_ENCODED_BYTE) | result;
+                if (++modulus == BYTES_PER_ENCODED_BLOCK) {
+                    pos = writeBlock(work, dst, pos);
+                    modulus = 0;
+                }
+            }
+        }
+        return decodeTail(work, modulus, dst, pos) - dstOff;
+    }
+
+    /**
+     * Decodes {@code len} bytes of {@code src} starting at {@code off}, accepting only what {@code policy} allows.
+     * <p>
+     * Each policy has its own decode loop. {@link DecodePolicy#STRICT} decodes whole blocks without checking for
+     * skippable bytes and fails on the first invalid one, {@link DecodePolicy#WHITESPACE_ONLY} only tests a
+     * non-alphabet byte for whitespace, and {@link DecodePolicy#LENIENT} is
+     * {@link #decode(byte[], int, int, byte[], int)}.
+     * </p>
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to decode.
+     * @param policy
+     *            which bytes besides the alphabet are accepted.
+     * @return the decoded bytes
+     * @throws IllegalArgumentException
+     *             if {@code policy} is not {@link DecodePolicy#LENIENT} and the input holds a byte it does not allow,
+     *             has a length no encoding produces, is padded wrong, or has non-zero unused bits in its last
+     *             character.
+     */
+    public static byte[] decode(final byte[] src, final int off, final int len, final DecodePolicy policy) {
+        switch (policy) {
+            case STRICT:
+                return decodeStrict(src, off, len);
+            case WHITESPACE_ONLY:
+                return decodeWhitespaceOnly(src, off, len);
+            case LENIENT:
+                final byte[] dst = new byte[decodeBufferSize(src, off, len)];
+                final int n = decode(src, off, len, dst, 0, PAD_DEFAULT);
+                return n == dst.length ? dst : Arrays.copyOf(dst, n);
+            default:
+                throw new IllegalArgumentException("Unknown policy " + policy);
+        }
+    }
+
+    /**
+     * Decodes all of {@code src}, accepting only what {@code policy} allows.
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param policy
+     *            which bytes besides the alphabet are accepted.
+     * @return the decoded bytes
+     * @throws IllegalArgumentException
+     *             if {@code src} is not valid under {@code policy}.
+     * @see #decode(byte[], int, int, DecodePolicy)
+     */
+    public static byte[] decode(final byte[] src, final DecodePolicy policy) {
+        return decode(src, 0, src.length, policy);
+    }
+
+    /**
+     * Only alphabet characters, optionally followed by the pads completing the last block. The pads are stripped
+     * first, so the decoded length is known up front and the loop has no pad or skip test.
+     */
+    private static byte[] decodeStrict(final byte[] src, final int off, final int len) {
+        final int end = off + len;
+        int chars = end;
+        while (chars > off && src[chars - 1] == PAD_DEFAULT) {
+            chars--;
+        }
+        final byte[] dst = new byte[(int) ((chars - off) * (long) BITS_PER_ENCODED_BYTE / 8)];
+        int pos = 0;
+        int i = off;
+        for (; chars - i >= BYTES_PER_ENCODED_BLOCK; i += BYTES_PER_ENCODED_BLOCK) {
+            final long block = decodeBlock(src, i);
+            if (block < 0) {
+                throw invalidByte(src, i, "STRICT");
+            }
+            pos = writeBlock(block, dst, pos);
+        }
+        long work = 0;
+        int bad = 0;
+        final int modulus = chars - i;
+        for (; i < chars; i++) {
+            final int result = octetDecodeTable[src[i] & MASK_8BITS];
+            bad |= result;
+            work = (work << BITS_PER_ENCODED_BYTE) | result;
+        }
+        if (bad < 0) {
+            throw invalidByte(src, chars - modulus, "STRICT");
+        }
+        checkTail(work, modulus, end - chars);
+        decodeTail(work, modulus, dst, pos);
+        return dst;
+    }
+
+    /**
+     * Alphabet characters with CR, LF, space and tab anywhere, optionally followed by the pads completing the last
+     * block. Whole blocks are decoded in one step; only a non-alphabet byte is tested for whitespace and pad.
+     */
+    private static byte[] decodeWhitespaceOnly(final byte[] src, final int off, final int len) {
+        final int end = off + len;
+        final byte[] dst = new byte[(int) (len * (long) BITS_PER_ENCODED_BYTE / 8)];
+        int pos = 0;
+        long work = 0;
+        int modulus = 0;
+        int pads = 0;
+        int i = off;
+        while (i < end) {
+            if (modulus == 0 && end - i >= BYTES_PER_ENCODED_BLOCK) {
+                final long block = decodeBlock(src, i);
+                if (block >= 0) {
+                    pos = writeBlock(block, dst, pos);
+                    i += BYTES_PER_ENCODED_BLOCK;
+                    continue;
+                }
+            }
+            final byte b = src[i];
+            final int result = octetDecodeTable[b & MASK_8BITS];
+            if (result >= 0) {
+                work = (work << BITS_PER_ENCODED_BYTE) | result;
+                if (++modulus == BYTES_PER_ENCODED_BLOCK) {
+                    pos = writeBlock(work, dst, pos);
+                    modulus = 0;
+                }
+            } else if (b == PAD_DEFAULT) {
+                break;
+            } else if (!isWhiteSpace(b)) {
+                throw invalidByte(src, i, "WHITESPACE_ONLY");
+            }
+            i++;
+        }
+        // after the first pad only pads and whitespace
+        for (; i < end; i++) {
+            final byte b = src[i];
+            if (b == PAD_DEFAULT) {
+                pads++;
+            } else if (!isWhiteSpace(b)) {
+                throw invalidByte(src, i, "WHITESPACE_ONLY");
+            }
+        }
+        checkTail(work, modulus, pads);
+        pos = decodeTail(work, modulus, dst, pos);
+        return pos == dst.length ? dst : Arrays.copyOf(dst, pos);
+    }
+
+    /**
+     * Checks that a last partial block of {@code modulus} characters is one an encoder writes: 2, 4, 5 or 7
+     * characters whose unused low bits are zero, with either no pads or the pads completing the block.
+     */
+    private static void checkTail(final long work, final int modulus, final int pads) {
+        if (modulus == 1 || modulus == 3 || modulus == 6) {
+            throw new IllegalArgumentException("Invalid length: a last block of " + modulus
+                    + " characters is not produced by any encoding");
+        }
+        if (pads != 0 && pads != (BYTES_PER_ENCODED_BLOCK - modulus) % BYTES_PER_ENCODED_BLOCK) {
+            throw new IllegalArgumentException(pads + " pads after a last block of " + modulus + " characters");
+        }
+        final int unused = modulus * BITS_PER_ENCODED_BYTE % 8;
+        if ((work & ((1 << unused) - 1)) != 0) {
+            throw new IllegalArgumentException("Non-zero unused bits in the last character");
+        }
+    }
+
+    /**
+     * Finds the first byte from {@code from} on that is not in the alphabet and reports it.
+     */
+    private static IllegalArgumentException invalidByte(final byte[] src, int from, final String policy) {
+        while (octetDecodeTable[src[from] & MASK_8BITS] >= 0) {
+            from++;
+        }
+        return new IllegalArgumentException(String.format("Byte 0x%02x at index %d is not allowed by %s decoding",
+                src[from] & MASK_8BITS, from, policy));
+    }
+
+    /**
+     * Decodes a String containing characters in the Base32 alphabet, reading the characters directly instead of
+     * converting the String to UTF-8 bytes first.
+     *
+     * @param pArray
+     *            A String containing Base32 character data
+     * @return a byte array containing binary data
+     */
+    @Override
+    public byte[] decode(final String pArray) {
+        if (pArray == null) {
+            return null;
+        }
+        // a pad above 0x7f is negative as a byte, but its char is the unsigned value
+        final int pad = padding == NO_PAD ? NO_PAD : padding & MASK_8BITS;
+        final byte[] dst = new byte[decodeBufferSize(pArray)];
+        final int n = decode(pArray, 0, pArray.length(), dst, 0, pad);
+        return n == dst.length ? dst : Arrays.copyOf(dst, n);
+    }
+
+    /**
+     * Decodes a byte[] containing characters in the Base32 alphabet.
+     * <p>
+     * The context buffer is allocated once for the longest possible decoding instead of starting at the default
+     * buffer size. That is exact for input without separators, which is then returned without a copy.
+     * </p>
+     *
+     * @param pArray
+     *            A byte array containing Base32 character data
+     * @return a byte array containing binary data
+     */
+    @Override
+    public byte[] decode(final byte[] pArray) {
+        if (pArray == null || pArray.length == 0) {
+            return pArray;
+        }
+        final Context context = new Context();
+        context.buffer = new byte[decodeBufferSize(pArray, 0, pArray.length)];
+        decode(pArray, 0, pArray.length, context);
+        decode(pArray, 0, EOF, context); // Notify decoder of EOF.
+        return result(context);
+    }
+
+    /**
+     * Encodes a byte[] containing binary data, into a byte[] containing characters in the Base32 alphabet.
+     * <p>
+     * The context buffer is allocated once at the exact encoded length, see {@link #getEncodedLength(byte[])}, and
+     * returned as the result, instead of starting at the default buffer size and being copied out.
+     * </p>
+     *
+     * @param pArray
+     *            a byte array containing binary data
+     * @param offset
+     *            initial offset of the subarray.
+     * @param length
+     *            length of the subarray.
+     * @return A byte array containing only the base N alphabetic character data
+     * @throws IllegalArgumentException
+     *             if the encoded data would be larger than an array can hold.
+     */
+    @Override
+    public byte[] encode(final byte[] pArray, final int offset, final int length) {
+        if (pArray == null || pArray.length == 0) {
+            return pArray;
+        }
+        final long size = encodedLength(length, isPadded(), lineLength,
+                lineSeparator == null ? 0 : lineSeparator.length);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Input array too big, the output array would be bigger (" + size
+                    + ") than the specified maximum size of " + Integer.MAX_VALUE);
+        }
+        final Context context = new Context();
+        context.buffer = new byte[(int) size];
+        encode(pArray, offset, length, context);
+        encode(pArray, offset, EOF, context); // Notify encoder of EOF.
+        return result(context);
+    }
+
+    /**
+     * Returns the output in a presized context buffer, which is the buffer itself unless it was sized wrong.
+     */
+    private static byte[] result(final Context context) {
+        final byte[] buffer = context.buffer;
+        if (context.readPos == 0 && context.pos == buffer.length) {
+            return buffer;
+        }
+        return Arrays.copyOfRange(buffer, context.readPos, context.pos);
+    }
+
+    /**
+     * Calculates the amount of space needed to encode the supplied array, exactly matching what this codec emits.
+     *
+     * @param pArray byte[] array which will later be encoded
+     *
+     * @return amount of space needed to encoded the supplied array.
+     * Returns a long since a max-len array will require &gt; Integer.MAX_VALUE
+     */
+    @Override
+    public long getEncodedLength(final byte[] pArray) {
+        return encodedLength(pArray.length, isPadded(), lineLength,
+                lineSeparator == null ? 0 : lineSeparator.length);
+    }
+
+    /**
+     * Returns whether this codec pads the last partial block and stops decoding at the pad.
+     *
+     * @return {@code false} for canonical, unpadded z-base-32
+     * @see #ZBase32(int, byte[], boolean)
+     */
+    public boolean isPadded() {
+        return padding != NO_PAD;
+    }
+
+    /**
+     * Encodes all remaining bytes of {@code src} into {@code dst}, padded with {@link #PAD_DEFAULT} and without
+     * chunking. Same as {@link #encode(ByteBuffer, ByteBuffer, boolean) encode(src, dst, true)}.
+     *
+     * @param src
+     *            the bytes to encode, heap or direct.
+     * @param dst
+     *            the buffer to write the Base32 characters to, heap or direct.
+     * @return {@link CoderResult#UNDERFLOW} if all of {@code src} was encoded, {@link CoderResult#OVERFLOW} if
+     *         {@code dst} ran out of room first.
+     */
+    public static CoderResult encode(final ByteBuffer src, final ByteBuffer dst) {
+        return encode(src, dst, true);
+    }
+
+    /**
+     * Encodes as many bytes of {@code src} into {@code dst} as fit, in the spirit of
+     * {@link java.nio.charset.CharsetEncoder#encode(java.nio.CharBuffer, ByteBuffer, boolean)}. Both buffers may be
+     * heap or direct; their positions are advanced past the bytes read and written.
+     * <p>
+     * Only whole 5-byte blocks are encoded unless {@code endOfInput} is set, in which case the last 1 to 4 bytes are
+     * encoded as a padded block. So a partial block is left in {@code src} for the caller to complete with more input.
+     * </p>
+     *
+     * @param src
+     *            the bytes to encode.
+     * @param dst
+     *            the buffer to write the Base32 characters to.
+     * @param endOfInput
+     *            whether {@code src} holds the last bytes of the input.
+     * @return {@link CoderResult#UNDERFLOW} if more input is needed (or, at end of input, everything was encoded),
+     *         {@link CoderResult#OVERFLOW} if {@code dst} has no room for the next block.
+     */
+    public static CoderResult encode(final ByteBuffer src, final ByteBuffer dst, final boolean endOfInput) {
+        int sp = src.position();
+        final int sl = src.limit();
+        int dp = dst.position();
+        final int dl = dst.limit();
+        final int blocks = Math.min((sl - sp) / BYTES_PER_UNENCODED_BLOCK, (dl - dp) / BYTES_PER_ENCODED_BLOCK);
+        CoderResult result = CoderResult.UNDERFLOW;
+        final int modulus = sl - sp - blocks * BYTES_PER_UNENCODED_BLOCK;
+        int tail = 0;
+        if (modulus >= BYTES_PER_UNENCODED_BLOCK) {
+            result = CoderResult.OVERFLOW;
+        } else if (modulus > 0 && endOfInput) {
+            if (dl - dp - blocks * BYTES_PER_ENCODED_BLOCK < BYTES_PER_ENCODED_BLOCK) {
+                result = CoderResult.OVERFLOW;
+            } else {
+                tail = modulus;
+            }
+        }
+        if (src.hasArray() && dst.hasArray()) {
+            // heap buffers: the byte[] code on the backing arrays
+            final int len = blocks * BYTES_PER_UNENCODED_BLOCK + tail;
+            dp += encode(src.array(), src.arrayOffset() + sp, len, dst.array(), dst.arrayOffset() + dp, PAD_DEFAULT);
+            sp += len;
+        } else {
+            for (int n = 0; n < blocks; n++) {
+                encodeBlock(readBlock(src, sp), dst, dp);
+                sp += BYTES_PER_UNENCODED_BLOCK;
+                dp += BYTES_PER_ENCODED_BLOCK;
+            }
+            if (tail > 0) {
+                long work = 0;
+                for (int n = 0; n < tail; n++) {
+                    work = (work << 8) | (src.get(sp++) & MASK_8BITS);
+                }
+                final byte[] chars = new byte[BYTES_PER_ENCODED_BLOCK];
+                dp = put(chars, encodeTail(work, tail, chars, 0, PAD_DEFAULT), dst, dp);
+            }
+        }
+        src.position(sp);
+        dst.position(dp);
+        return result;
+    }
+
+    /**
+     * Decodes all remaining bytes of {@code src} into {@code dst}. Same as
+     * {@link #decode(ByteBuffer, ByteBuffer, boolean) decode(src, dst, true)}.
+     *
+     * @param src
+     *            the ascii data to Base32 decode, heap or direct.
+     * @param dst
+     *            the buffer to write the decoded bytes to, heap or direct.
+     * @return {@link CoderResult#UNDERFLOW} if all of {@code src} was decoded, {@link CoderResult#OVERFLOW} if
+     *         {@code dst} ran out of room first.
+     */
+    public static CoderResult decode(final ByteBuffer src, final ByteBuffer dst) {
+        return decode(src, dst, true);
+    }
+
+    /**
+     * Decodes as many bytes of {@code src} into {@code dst} as fit. Both buffers may be heap or direct; their
+     * positions are advanced past the bytes read and written.
+     * <p>
+     * Like {@link #decode(byte[], int, int, byte[], int)}, all non-Base32 characters are ignored. Decoding stops at
+     * the first {@link #PAD_DEFAULT} character, which is consumed; anything after it is left in {@code src}. Unless
+     * {@code endOfInput} is set, the characters of a trailing partial block are left in {@code src} for the caller to
+     * complete with more input.
+     * </p>
+     *
+     * @param src
+     *            the ascii data to Base32 decode.
+     * @param dst
+     *            the buffer to write the decoded bytes to.
+     * @param endOfInput
+     *            whether {@code src} holds the last characters of the input.
+     * @return {@link CoderResult#UNDERFLOW} if more input is needed (or, at end of input or pad, everything was
+     *         decoded), {@link CoderResult#OVERFLOW} if {@code dst} has no room for the next block.
+     */
+    public static CoderResult decode(final ByteBuffer src, final ByteBuffer dst, final boolean endOfInput) {
+        int sp = src.position();
+        final int sl = src.limit();
+        int dp = dst.position();
+        final int dl = dst.limit();
+        final boolean heap = src.hasArray() && dst.hasArray();
+        int mark = sp; // start of the block being collected
+        long work = 0;
+        int modulus = 0;
+        boolean eof = endOfInput;
+        while (sp < sl) {
+            if (modulus == 0) {
+                // on a block boundary: decode whole 8-character blocks until one holds a non-alphabet byte
+                final int blocks = Math.min((sl - sp) / BYTES_PER_ENCODED_BLOCK, (dl - dp) / BYTES_PER_UNENCODED_BLOCK);
+                final int n;
+                if (heap) {
+                    // heap buffers: the byte[] block loop on the backing arrays
+                    n = decodeBlocks(src.array(), src.arrayOffset() + sp, blocks, dst.array(), dst.arrayOffset() + dp);
+                } else {
+                    n = decodeBlocks(src, sp, blocks, dst, dp);
+                }
+                sp += n * BYTES_PER_ENCODED_BLOCK;
+                dp += n * BYTES_PER_UNENCODED_BLOCK;
+                mark = sp;
+                if (sp == sl) {
+                    break;
+                }
+            }
+            final byte b = src.get(sp++);
+            if (b == PAD_DEFAULT) {
+                eof = true;
+                break;
+            }
+            final int result = octetDecodeTable[b & MASK_8BITS];
+            if (result >= 0) {
+                work = (work << BITS_PER_ENCODED_BYTE) | result;
+                if (++modulus == BYTES_PER_ENCODED_BLOCK) {
+                    if (dl - dp < BYTES_PER_UNENCODED_BLOCK) {
+                        sp = mark;
+                        eof = false;
+                        break;
+                    }
+                    writeBlock(work, dst, dp);
+                    dp += BYTES_PER_UNENCODED_BLOCK;
+                    modulus = 0;
+                    mark = sp;
+                }
+            }
+        }
+        CoderResult result = CoderResult.UNDERFLOW;
+        if (modulus == BYTES_PER_ENCODED_BLOCK) {
+            result = CoderResult.OVERFLOW;
+        } else if (eof) {
+            final int bytes = modulus * BITS_PER_ENCODED_BYTE / 8;
+            if (dl - dp < bytes) {
+                sp = mark;
+                result = CoderResult.OVERFLOW;
+            } else if (heap) {
+                dp = decodeTail(work, modulus, dst.array(), dst.arrayOffset() + dp) - dst.arrayOffset();
+            } else {
+                final byte[] octets = new byte[BYTES_PER_UNENCODED_BLOCK];
+                dp = put(octets, decodeTail(work, modulus, octets, 0), dst, dp);
+            }
+        } else {
+            sp = mark;
+        }
+        src.position(sp);
+        dst.position(dp);
+        return result;
+    }
+
+    /**
+     * Encodes a byte[] containing binary data, into a String containing characters in the Base32 alphabet.
+     * <p>
+     * The alphabet is pure ASCII, so the String is built straight from the encoded bytes instead of running them
+     * through a UTF-8 decoder. Without chunking the bytes are encoded into an exactly sized array first.
+     * </p>
+     *
+     * @param pArray
+     *            a byte array containing binary data
+     * @return A String containing only Base32 character data
+     */
+    @Override
+    public String encodeToString(final byte[] pArray) {
+        if (pArray == null) {
+            return null;
+        }
+        final byte[] encoded;
+        if (lineLength == 0 && pArray.length > 0) {
+            encoded = new byte[(int) encodedLength(pArray.length, isPadded())];
+            encode(pArray, 0, pArray.length, encoded, 0, padding);
+        } else {
+            encoded = encode(pArray);
+        }
+        return newStringAscii(encoded);
+    }
+
+    /**
+     * Encodes a byte[] containing binary data, into a String containing characters in the Base32 alphabet.
+     *
+     * @param pArray
+     *            a byte array containing binary data
+     * @return A String containing only Base32 character data
+     * @see #encodeToString(byte[])
+     */
+    @Override
+    public String encodeAsString(final byte[] pArray) {
+        return encodeToString(pArray);
+    }
+
+    /**
+     * Returns a new session encoding with this codec's line length, separator and pad, which reuses its context and
+     * output buffer from one value to the next.
+     *
+     * @return a new encoder session, for use by one thread
+     */
+    public ZBase32Session.Encoder newEncoderSession() {
+        return new ZBase32Session.Encoder(this);
+    }
+
+    /**
+     * Returns a new session decoding with this codec's pad, which reuses its context and output buffer from one value
+     * to the next.
+     *
+     * @return a new decoder session, for use by one thread
+     */
+    public ZBase32Session.Decoder newDecoderSession() {
+        return new ZBase32Session.Decoder(this);
+    }
+
+    /**
+     * Builds a String from ASCII bytes with a single copy: the high-byte constructor skips the charset decoder,
+     * and on JDK 9+ with compact strings it copies the bytes as they are.
+     */
+    @SuppressWarnings("deprecation")
+    private static String newStringAscii(final byte[] ascii) {
+        return new String(ascii, 0, 0, ascii.length);
+    }
+
+    /**
+     * Encodes a long as 13 Base32 characters, most significant bits first. This is the same as the unpadded encoding
+     * of its 8 big-endian bytes, without packing them into an array first.
+     *
+     * @param value
+     *            the value to encode
+     * @return the 13 characters
+     */
+    public static String encodeLong(final long value) {
+        final byte[] dst = new byte[LONG_ENCODED_LENGTH];
+        encodeLong(value, dst, 0);
+        return newStringAscii(dst);
+    }
+
+    /**
+     * Encodes a long as 13 Base32 characters straight into {@code dst}.
+     *
+     * @param value
+     *            the value to encode
+     * @param dst
+     *            Array to write the 13 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written, 13
+     * @see #encodeLong(long)
+     */
+    public static int encodeLong(final long value, final byte[] dst, final int dstOff) {
+        for (int i = 0, shift = 59; i < LONG_ENCODED_LENGTH - 1; i++, shift -= BITS_PER_ENCODED_BYTE) {
+            dst[dstOff + i] = encodeTable[(int) (value >>> shift) & MASK_5BITS];
+        }
+        dst[dstOff + LONG_ENCODED_LENGTH - 1] = encodeTable[(int) (value << 1) & MASK_5BITS]; // 4 bits + 1 zero bit
+        return LONG_ENCODED_LENGTH;
+    }
+
+    /**
+     * Encodes a long as 13 Base32 characters straight into {@code dst}.
+     *
+     * @param value
+     *            the value to encode
+     * @param dst
+     *            Array to write the 13 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of chars written, 13
+     * @see #encodeLong(long)
+     */
+    public static int encodeLong(final long value, final char[] dst, final int dstOff) {
+        for (int i = 0, shift = 59; i < LONG_ENCODED_LENGTH - 1; i++, shift -= BITS_PER_ENCODED_BYTE) {
+            dst[dstOff + i] = (char) encodeTable[(int) (value >>> shift) & MASK_5BITS];
+        }
+        dst[dstOff + LONG_ENCODED_LENGTH - 1] = (char) encodeTable[(int) (value << 1) & MASK_5BITS];
+        return LONG_ENCODED_LENGTH;
+    }
+
+    /**
+     * Encodes an int as 7 Base32 characters, most significant bits first. This is the same as the unpadded encoding
+     * of its 4 big-endian bytes, without packing them into an array first.
+     *
+     * @param value
+     *            the value to encode
+     * @return the 7 characters
+     */
+    public static String encodeInt(final int value) {
+        final byte[] dst = new byte[INT_ENCODED_LENGTH];
+        encodeInt(value, dst, 0);
+        return newStringAscii(dst);
+    }
+
+    /**
+     * Encodes an int as 7 Base32 characters straight into {@code dst}.
+     *
+     * @param value
+     *            the value to encode
+     * @param dst
+     *            Array to write the 7 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written, 7
+     * @see #encodeInt(int)
+     */
+    public static int encodeInt(final int value, final byte[] dst, final int dstOff) {
+        for (int i = 0, shift = 27; i < INT_ENCODED_LENGTH - 1; i++, shift -= BITS_PER_ENCODED_BYTE) {
+            dst[dstOff + i] = encodeTable[(value >>> shift) & MASK_5BITS];
+        }
+        dst[dstOff + INT_ENCODED_LENGTH - 1] = encodeTable[(value << 3) & MASK_5BITS]; // 2 bits + 3 zero bits
+        return INT_ENCODED_LENGTH;
+    }
+
+    /**
+     * Encodes an int as 7 Base32 characters straight into {@code dst}.
+     *
+     * @param value
+     *            the value to encode
+     * @param dst
+     *            Array to write the 7 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of chars written, 7
+     * @see #encodeInt(int)
+     */
+    public static int encodeInt(final int value, final char[] dst, final int dstOff) {
+        for (int i = 0, shift = 27; i < INT_ENCODED_LENGTH - 1; i++, shift -= BITS_PER_ENCODED_BYTE) {
+            dst[dstOff + i] = (char) encodeTable[(value >>> shift) & MASK_5BITS];
+        }
+        dst[dstOff + INT_ENCODED_LENGTH - 1] = (char) encodeTable[(value << 3) & MASK_5BITS];
+        return INT_ENCODED_LENGTH;
+    }
+
+    /**
+     * Decodes 13 Base32 characters, as written by {@link #encodeLong(long)}, into a long.
+     *
+     * @param src
+     *            the 13 characters to decode
+     * @return the decoded value
+     * @throws IllegalArgumentException
+     *             if {@code src} is not exactly 13 Base32 characters, or its unused last bit is set.
+     */
+    public static long decodeLong(final CharSequence src) {
+        if (src.length() != LONG_ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Encoded long must be " + LONG_ENCODED_LENGTH
+                    + " characters, but was " + src.length());
+        }
+        long value = 0;
+        int bad = 0;
+        for (int i = 0; i < LONG_ENCODED_LENGTH - 1; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            value = (value << BITS_PER_ENCODED_BYTE) | result;
+        }
+        final int last = decodeChar(src.charAt(LONG_ENCODED_LENGTH - 1));
+        if ((bad | last) < 0 || (last & 1) != 0) {
+            throw new IllegalArgumentException("Not a Base32 encoded long: " + src);
+        }
+        return (value << 4) | (last >> 1);
+    }
+
+    /**
+     * Decodes 7 Base32 characters, as written by {@link #encodeInt(int)}, into an int.
+     *
+     * @param src
+     *            the 7 characters to decode
+     * @return the decoded value
+     * @throws IllegalArgumentException
+     *             if {@code src} is not exactly 7 Base32 characters, or its unused last 3 bits are set.
+     */
+    public static int decodeInt(final CharSequence src) {
+        if (src.length() != INT_ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Encoded int must be " + INT_ENCODED_LENGTH
+                    + " characters, but was " + src.length());
+        }
+        long value = 0;
+        int bad = 0;
+        for (int i = 0; i < INT_ENCODED_LENGTH; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            value = (value << BITS_PER_ENCODED_BYTE) | result;
+        }
+        if (bad < 0 || (value & 7) != 0) {
+            throw new IllegalArgumentException("Not a Base32 encoded int: " + src);
+        }
+        return (int) (value >> 3);
+    }
+
+    /**
+     * Encodes a UUID as 26 Base32 characters. Same as {@link #encode128(long, long)
+     * encode128(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())}.
+     *
+     * @param uuid
+     *            the UUID to encode
+     * @return the 26 characters
+     */
+    public static String encodeUuid(final UUID uuid) {
+        return encode128(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Encodes a 128-bit value given as two longs as 26 Base32 characters, most significant bits first. This is the
+     * same as the unpadded encoding of its 16 big-endian bytes.
+     *
+     * @param hi
+     *            the most significant 64 bits
+     * @param lo
+     *            the least significant 64 bits
+     * @return the 26 characters
+     */
+    public static String encode128(final long hi, final long lo) {
+        final byte[] dst = new byte[UUID_ENCODED_LENGTH];
+        encode128(hi, lo, dst, 0);
+        return newStringAscii(dst);
+    }
+
+    /**
+     * Encodes a 128-bit value given as two longs as 26 Base32 characters straight into {@code dst}.
+     *
+     * @param hi
+     *            the most significant 64 bits
+     * @param lo
+     *            the least significant 64 bits
+     * @param dst
+     *            Array to write the 26 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written, 26
+     * @see #encode128(long, long)
+     */
+    public static int encode128(final long hi, final long lo, final byte[] dst, final int dstOff) {
+        int pos = dstOff;
+        for (int shift = 59; shift >= 4; shift -= BITS_PER_ENCODED_BYTE) {
+            dst[pos++] = encodeTable[(int) (hi >>> shift) & MASK_5BITS];
+        }
+        // 4 bits of hi and the top bit of lo
+        dst[pos++] = encodeTable[(int) (hi << 1 | lo >>> 63) & MASK_5BITS];
+        for (int shift = 58; shift >= 3; shift -= BITS_PER_ENCODED_BYTE) {
+            dst[pos++] = encodeTable[(int) (lo >>> shift) & MASK_5BITS];
+        }
+        dst[pos++] = encodeTable[(int) (lo << 2) & MASK_5BITS]; // 3 bits + 2 zero bits
+        return pos - dstOff;
+    }
+
+    /**
+     * Decodes 26 Base32 characters, as written by {@link #encodeUuid(UUID)}, into a UUID.
+     *
+     * @param src
+     *            the 26 characters to decode
+     * @return the decoded UUID
+     * @throws IllegalArgumentException
+     *             if {@code src} is not exactly 26 Base32 characters, or its unused last 2 bits are set.
+     */
+    public static UUID decodeUuid(final CharSequence src) {
+        if (src.length() != UUID_ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Encoded UUID must be " + UUID_ENCODED_LENGTH
+                    + " characters, but was " + src.length());
+        }
+        long hi = 0;
+        int bad = 0;
+        int i = 0;
+        for (; i < 12; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            hi = (hi << BITS_PER_ENCODED_BYTE) | result;
+        }
+        final int middle = decodeChar(src.charAt(i++));
+        hi = (hi << 4) | (middle >> 1);
+        long lo = middle & 1;
+        for (; i < UUID_ENCODED_LENGTH - 1; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            lo = (lo << BITS_PER_ENCODED_BYTE) | result;
+        }
+        final int last = decodeChar(src.charAt(i));
+        if ((bad | middle | last) < 0 || (last & 3) != 0) {
+            throw new IllegalArgumentException("Not a Base32 encoded UUID: " + src);
+        }
+        return new UUID(hi, (lo << 3) | (last >> 2));
+    }
+
+    /**
+     * Encodes the first {@code bitLength} bits of {@code data}, most significant bit of each byte first, as the
+     * z-base-32 specification allows: the output is the minimal {@code ceil(bitLength / 5)} characters, unpadded, and
+     * the unused low bits of the last character are zero. For example a 30-bit value is 6 characters, where whole
+     * bytes would need 7.
+     *
+     * @param data
+     *            the bits to encode, in at least {@code ceil(bitLength / 8)} bytes. Bits after the first
+     *            {@code bitLength} are ignored.
+     * @param bitLength
+     *            the number of bits to encode.
+     * @return the Base32 characters
+     * @throws IllegalArgumentException
+     *             if {@code bitLength} is negative or larger than {@code data} holds.
+     */
+    public static String encodeBits(final byte[] data, final int bitLength) {
+        if (bitLength < 0 || bitLength > (long) data.length * 8) {
+            throw new IllegalArgumentException("Cannot encode " + bitLength + " bits of " + data.length + " bytes");
+        }
+        final int chars = (bitLength + BITS_PER_ENCODED_BYTE - 1) / BITS_PER_ENCODED_BYTE;
+        final int bytes = (bitLength + 7) / 8;
+        final byte[] dst = new byte[chars];
+        long work = 0;
+        int bits = 0;
+        int in = 0;
+        for (int i = 0; i < chars; i++) {
+            if (bits < BITS_PER_ENCODED_BYTE) {
+                work = (work << 8) | (in < bytes ? data[in++] & MASK_8BITS : 0);
+                bits += 8;
+            }
+            bits -= BITS_PER_ENCODED_BYTE;
+            dst[i] = (byte) ((work >>> bits) & MASK_5BITS);
+        }
+        if (chars > 0) {
+            // only the last character can hold bits past bitLength
+            dst[chars - 1] &= MASK_5BITS << (chars * BITS_PER_ENCODED_BYTE - bitLength);
+        }
+        for (int i = 0; i < chars; i++) {
+            dst[i] = encodeTable[dst[i]];
+        }
+        return newStringAscii(dst);
+    }
+
+    /**
+     * Encodes the low {@code bitLength} bits of {@code value}, most significant first, as the minimal
+     * {@code ceil(bitLength / 5)} unpadded characters. See {@link #encodeBits(byte[], int)}.
+     *
+     * @param value
+     *            the value to encode.
+     * @param bitLength
+     *            the number of low bits of {@code value} to encode, 0 to 64.
+     * @return the Base32 characters
+     * @throws IllegalArgumentException
+     *             if {@code bitLength} is not between 0 and 64.
+     */
+    public static String encodeBits(final long value, final int bitLength) {
+        if (bitLength < 0 || bitLength > Long.SIZE) {
+            throw new IllegalArgumentException("Cannot encode " + bitLength + " bits of a long");
+        }
+        final int chars = (bitLength + BITS_PER_ENCODED_BYTE - 1) / BITS_PER_ENCODED_BYTE;
+        final byte[] dst = new byte[chars];
+        if (chars > 0) {
+            for (int i = 0; i < chars - 1; i++) {
+                dst[i] = encodeTable[(int) (value >>> (bitLength - BITS_PER_ENCODED_BYTE * (i + 1))) & MASK_5BITS];
+            }
+            final int valid = bitLength - BITS_PER_ENCODED_BYTE * (chars - 1); // 1 to 5 bits in the last character
+            final int last = (int) (value & ((1 << valid) - 1)) << (BITS_PER_ENCODED_BYTE - valid);
+            dst[chars - 1] = encodeTable[last];
+        }
+        return newStringAscii(dst);
+    }
+
+    /**
+     * Decodes {@code bitLength} bits from exactly {@code ceil(bitLength / 5)} characters, as written by
+     * {@link #encodeBits(byte[], int)}.
+     *
+     * @param src
+     *            the characters to decode.
+     * @param bitLength
+     *            the number of bits encoded in {@code src}.
+     * @return the bits in {@code ceil(bitLength / 8)} bytes, most significant bit first; the unused low bits of the
+     *         last byte are zero
+     * @throws IllegalArgumentException
+     *             if {@code src} has the wrong length, holds a non-Base32 character, or has any of the unused low bits
+     *             of its last character set.
+     */
+    public static byte[] decodeBits(final CharSequence src, final int bitLength) {
+        final int chars = checkBitsLength(src, bitLength);
+        final byte[] dst = new byte[(bitLength + 7) / 8];
+        long work = 0;
+        int bits = 0;
+        int out = 0;
+        int bad = 0;
+        for (int i = 0; i < chars; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            work = (work << BITS_PER_ENCODED_BYTE) | (result & MASK_5BITS);
+            bits += BITS_PER_ENCODED_BYTE;
+            if (bits >= 8) {
+                bits -= 8;
+                if (out < dst.length) {
+                    dst[out++] = (byte) (work >>> bits);
+                }
+            }
+        }
+        if (out < dst.length) {
+            dst[out] = (byte) (work << (8 - bits));
+        }
+        // the unused low bits of the last character must be zero
+        final int unused = chars * BITS_PER_ENCODED_BYTE - bitLength;
+        if (bad < 0 || (work & ((1 << unused) - 1)) != 0) {
+            throw new IllegalArgumentException("Not " + bitLength + " Base32 encoded bits: " + src);
+        }
+        return dst;
+    }
+
+    /**
+     * Decodes {@code bitLength} bits, 0 to 64, from exactly {@code ceil(bitLength / 5)} characters, as written by
+     * {@link #encodeBits(long, int)}.
+     *
+     * @param src
+     *            the characters to decode.
+     * @param bitLength
+     *            the number of bits encoded in {@code src}, 0 to 64.
+     * @return the bits as the low {@code bitLength} bits of a long
+     * @throws IllegalArgumentException
+     *             if {@code bitLength} is not between 0 and 64, {@code src} has the wrong length, holds a non-Base32
+     *             character, or has any of the unused low bits of its last character set.
+     */
+    public static long decodeBitsAsLong(final CharSequence src, final int bitLength) {
+        if (bitLength > Long.SIZE) {
+            throw new IllegalArgumentException("Cannot decode " + bitLength + " bits into a long");
+        }
+        final int chars = checkBitsLength(src, bitLength);
+        if (chars == 0) {
+            return 0;
+        }
+        long value = 0;
+        int bad = 0;
+        for (int i = 0; i < chars - 1; i++) {
+            final int result = decodeChar(src.charAt(i));
+            bad |= result;
+            value = (value << BITS_PER_ENCODED_BYTE) | result;
+        }
+        final int last = decodeChar(src.charAt(chars - 1));
+        final int valid = bitLength - BITS_PER_ENCODED_BYTE * (chars - 1);
+        if ((bad | last) < 0 || (last & ((1 << (BITS_PER_ENCODED_BYTE - valid)) - 1)) != 0) {
+            throw new IllegalArgumentException("Not " + bitLength + " Base32 encoded bits: " + src);
+        }
+        return (value << valid) | (last >> (BITS_PER_ENCODED_BYTE - valid));
+    }
+
+    /**
+     * @return the number of characters encoding {@code bitLength} bits, which must be the length of {@code src}
+     */
+    private static int checkBitsLength(final CharSequence src, final int bitLength) {
+        if (bitLength < 0) {
+            throw new IllegalArgumentException("Negative bit length " + bitLength);
+        }
+        final int chars = (bitLength + BITS_PER_ENCODED_BYTE - 1) / BITS_PER_ENCODED_BYTE;
+        if (src.length() != chars) {
+            throw new IllegalArgumentException(bitLength + " encoded bits must be " + chars
+                    + " characters, but was " + src.length());
+        }
+        return chars;
+    }
+
+    /**
+     * Encodes {@code src} like {@link #encode(byte[], int, int, byte[], int)}, splitting the work on 5-byte block
+     * boundaries over the threads of {@code pool}. Inputs shorter than {@link #DEFAULT_PARALLEL_THRESHOLD} are encoded
+     * on the calling thread.
+     *
+     * @param src
+     *            byte[] array of binary data to Base32 encode.
+     * @param pool
+     *            the pool to run the encoding on.
+     * @return the padded Base32 characters, unchunked
+     * @throws IllegalArgumentException
+     *             if the encoded data would be larger than an array can hold.
+     */
+    public static byte[] parallelEncode(final byte[] src, final ForkJoinPool pool) {
+        return parallelEncode(src, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Encodes {@code src} like {@link #encode(byte[], int, int, byte[], int)}, splitting the work on 5-byte block
+     * boundaries over the threads of {@code pool}. Each task writes straight into its slice of the one output array.
+     *
+     * @param src
+     *            byte[] array of binary data to Base32 encode.
+     * @param pool
+     *            the pool to run the encoding on.
+     * @param threshold
+     *            inputs shorter than this many bytes are encoded on the calling thread.
+     * @return the padded Base32 characters, unchunked
+     * @throws IllegalArgumentException
+     *             if the encoded data would be larger than an array can hold.
+     */
+    public static byte[] parallelEncode(final byte[] src, final ForkJoinPool pool, final int threshold) {
+        final long size = encodedLength(src.length, true);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Input array too big, the output array would be bigger (" + size
+                    + ") than the specified maximum size of " + Integer.MAX_VALUE);
+        }
+        final byte[] dst = new byte[(int) size];
+        int blocks = 0;
+        if (src.length >= threshold) {
+            blocks = src.length / BYTES_PER_UNENCODED_BLOCK;
+            pool.invoke(new EncodeTask(src, dst, 0, blocks));
+        }
+        final int done = blocks * BYTES_PER_UNENCODED_BLOCK;
+        encode(src, done, src.length - done, dst, blocks * BYTES_PER_ENCODED_BLOCK, PAD_DEFAULT);
+        return dst;
+    }
+
+    /**
+     * Decodes {@code src} like {@link #decode(byte[], int, int, byte[], int)}, splitting the work on line or block
+     * boundaries over the threads of {@code pool}. Inputs shorter than {@link #DEFAULT_PARALLEL_THRESHOLD} are decoded
+     * on the calling thread.
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param pool
+     *            the pool to run the decoding on.
+     * @return the decoded bytes
+     * @see #parallelDecode(byte[], ForkJoinPool, int)
+     */
+    public static byte[] parallelDecode(final byte[] src, final ForkJoinPool pool) {
+        return parallelDecode(src, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Decodes {@code src} like {@link #decode(byte[], int, int, byte[], int)}, splitting the work on line or block
+     * boundaries over the threads of {@code pool}. Each task writes straight into its slice of the one output array.
+     * <p>
+     * The layout is detected from the first line: the run of Base32 characters up to the first other character is
+     * the line length, and the following run of non-Base32 characters is the line separator. Without a separator,
+     * {@code src} is split on 8-character blocks. If the line length is not a multiple of 8, or a task finds a line
+     * that does not follow the layout, {@code src} is decoded again on the calling thread.
+     * </p>
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param pool
+     *            the pool to run the decoding on.
+     * @param threshold
+     *            inputs shorter than this many characters are decoded on the calling thread.
+     * @return the decoded bytes
+     */
+    public static byte[] parallelDecode(final byte[] src, final ForkJoinPool pool, final int threshold) {
+        if (src.length >= threshold) {
+            int lineLength = 0;
+            while (lineLength < src.length && octetDecodeTable[src[lineLength] & MASK_8BITS] >= 0) {
+                lineLength++;
+            }
+            int separatorEnd = lineLength;
+            while (separatorEnd < src.length && src[separatorEnd] != PAD_DEFAULT
+                    && octetDecodeTable[src[separatorEnd] & MASK_8BITS] < 0) {
+                separatorEnd++;
+            }
+            final byte[] dst = separatorEnd == lineLength
+                    ? decodeLines(src, BYTES_PER_ENCODED_BLOCK, NO_SEPARATOR, pool)
+                    : decodeLines(src, lineLength, Arrays.copyOfRange(src, lineLength, separatorEnd), pool);
+            if (dst != null) {
+                return dst;
+            }
+        }
+        return decodeSerially(src);
+    }
+
+    /**
+     * Decodes {@code src}, as written by {@link #ZBase32(int, byte[])} with the given {@code lineLength} and
+     * {@code lineSeparator}, on the threads of {@code pool}. Inputs shorter than {@link #DEFAULT_PARALLEL_THRESHOLD}
+     * are decoded on the calling thread.
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param lineLength
+     *            the length of each encoded line, rounded down to the nearest multiple of 8. If it is &lt;= 0,
+     *            {@code src} is taken to be unchunked.
+     * @param lineSeparator
+     *            the bytes ending each encoded line.
+     * @param pool
+     *            the pool to run the decoding on.
+     * @return the decoded bytes
+     * @see #parallelDecode(byte[], int, byte[], ForkJoinPool, int)
+     */
+    public static byte[] parallelDecode(final byte[] src, final int lineLength, final byte[] lineSeparator,
+                                        final ForkJoinPool pool) {
+        return parallelDecode(src, lineLength, lineSeparator, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Decodes {@code src}, as written by {@link #ZBase32(int, byte[])} with the given {@code lineLength} and
+     * {@code lineSeparator}, on the threads of {@code pool}. Every line but the last has a known length and a known
+     * output offset, so the lines are decoded concurrently. If a task finds a line that does not follow the layout,
+     * {@code src} is decoded again on the calling thread with the usual lenient rules.
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param lineLength
+     *            the length of each encoded line, rounded down to the nearest multiple of 8. If it is &lt;= 0,
+     *            {@code src} is taken to be unchunked.
+     * @param lineSeparator
+     *            the bytes ending each encoded line.
+     * @param pool
+     *            the pool to run the decoding on.
+     * @param threshold
+     *            inputs shorter than this many characters are decoded on the calling thread.
+     * @return the decoded bytes
+     */
+    public static byte[] parallelDecode(final byte[] src, final int lineLength, final byte[] lineSeparator,
+                                        final ForkJoinPool pool, final int threshold) {
+        if (src.length >= threshold) {
+            final int length = lineLength / BYTES_PER_ENCODED_BLOCK * BYTES_PER_ENCODED_BLOCK;
+            final byte[] dst = length > 0
+                    ? decodeLines(src, length, lineSeparator, pool)
+                    : decodeLines(src, BYTES_PER_ENCODED_BLOCK, NO_SEPARATOR, pool);
+            if (dst != null) {
+                return dst;
+            }
+        }
+        return decodeSerially(src);
+    }
+
+    /**
+     * Decodes {@code src} as lines of {@code lineLength} Base32 characters, each followed by {@code separator}. The
+     * last line, which may be shorter and padded, is decoded on the calling thread.
+     *
+     * @return the decoded bytes, or null if {@code src} does not follow that layout
+     */
+    private static byte[] decodeLines(final byte[] src, final int lineLength, final byte[] separator,
+                                      final ForkJoinPool pool) {
+        if (lineLength % BYTES_PER_ENCODED_BLOCK != 0) {
+            return null;
+        }
+        for (final byte b : separator) {
+            if (b == PAD_DEFAULT || octetDecodeTable[b & MASK_8BITS] >= 0) {
+                return null; // serial decoding would not skip it
+            }
+        }
+        final int stride = lineLength + separator.length;
+        final int lines = src.length == 0 ? 0 : (src.length - 1) / stride;
+        final int tailOff = lines * stride;
+        final int done = lines * (lineLength / BYTES_PER_ENCODED_BLOCK * BYTES_PER_UNENCODED_BLOCK);
+        final byte[] dst = new byte[done + decodedLength(src, tailOff, src.length - tailOff)];
+        if (!pool.invoke(new DecodeTask(src, dst, lineLength, separator, 0, lines, new AtomicBoolean()))) {
+            return null;
+        }
+        decode(src, tailOff, src.length - tailOff, dst, done, PAD_DEFAULT);
+        return dst;
+    }
+
+    private static byte[] decodeSerially(final byte[] src) {
+        final byte[] dst = new byte[decodedLength(src)];
+        decode(src, 0, src.length, dst, 0, PAD_DEFAULT);
+        return dst;
+    }
+
+    /**
+     * Encodes every array of {@code inputs} like {@link #encode(byte[], int, int, byte[], int)}, packed one after the
+     * other into one array. The output lengths are computed first, so a batch costs the same three allocations
+     * however many inputs it has.
+     *
+     * @param inputs
+     *            the binary data to Base32 encode.
+     * @return the padded Base32 characters of each input
+     * @throws IllegalArgumentException
+     *             if the encoded data would be larger than an array can hold.
+     */
+    public static Batch encodeBatch(final byte[][] inputs) {
+        final int[] offsets = new int[inputs.length + 1];
+        long size = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            offsets[i] = (int) size;
+            size += encodedLength(inputs[i].length, true);
+            checkBatchSize(size);
+        }
+        offsets[inputs.length] = (int) size;
+        final byte[] data = new byte[(int) size];
+        for (int i = 0; i < inputs.length; i++) {
+            encode(inputs[i], 0, inputs[i].length, data, offsets[i], PAD_DEFAULT);
+        }
+        return new Batch(data, offsets);
+    }
+
+    /**
+     * Encodes the ranges {@code src[offsets[i], offsets[i] + lengths[i])} like
+     * {@link #encode(byte[], int, int, byte[], int)}, packed one after the other into one array.
+     *
+     * @param src
+     *            the array holding the binary data to Base32 encode.
+     * @param offsets
+     *            the position of each input in {@code src}.
+     * @param lengths
+     *            the length of each input, as many as {@code offsets}.
+     * @return the padded Base32 characters of each input
+     * @throws IllegalArgumentException
+     *             if {@code offsets} and {@code lengths} differ in length, or the encoded data would be larger than an
+     *             array can hold.
+     */
+    public static Batch encodeBatch(final byte[] src, final int[] offsets, final int[] lengths) {
+        checkBatchRanges(offsets, lengths);
+        final int[] outOffsets = new int[offsets.length + 1];
+        long size = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            outOffsets[i] = (int) size;
+            size += encodedLength(lengths[i], true);
+            checkBatchSize(size);
+        }
+        outOffsets[offsets.length] = (int) size;
+        final byte[] data = new byte[(int) size];
+        for (int i = 0; i < offsets.length; i++) {
+            encode(src, offsets[i], lengths[i], data, outOffsets[i], PAD_DEFAULT);
+        }
+        return new Batch(data, outOffsets);
+    }
+
+    /**
+     * Decodes every array of {@code inputs} like {@link #decode(byte[], int, int, byte[], int)}, packed one after the
+     * other into one array.
+     *
+     * @param inputs
+     *            the ascii data to Base32 decode.
+     * @return the decoded bytes of each input
+     * @throws IllegalArgumentException
+     *             if the decoded data would be larger than an array can hold.
+     */
+    public static Batch decodeBatch(final byte[][] inputs) {
+        final int[] offsets = new int[inputs.length + 1];
+        long size = 0;
+        for (int i = 0; i < inputs.length; i++) {
+            offsets[i] = (int) size;
+            size += decodedLength(inputs[i]);
+            checkBatchSize(size);
+        }
+        offsets[inputs.length] = (int) size;
+        final byte[] data = new byte[(int) size];
+        for (int i = 0; i < inputs.length; i++) {
+            decode(inputs[i], 0, inputs[i].length, data, offsets[i], PAD_DEFAULT);
+        }
+        return new Batch(data, offsets);
+    }
+
+    /**
+     * Decodes the ranges {@code src[offsets[i], offsets[i] + lengths[i])} like
+     * {@link #decode(byte[], int, int, byte[], int)}, packed one after the other into one array.
+     *
+     * @param src
+     *            the array holding the ascii data to Base32 decode.
+     * @param offsets
+     *            the position of each input in {@code src}.
+     * @param lengths
+     *            the length of each input, as many as {@code offsets}.
+     * @return the decoded bytes of each input
+     * @throws IllegalArgumentException
+     *             if {@code offsets} and {@code lengths} differ in length, or the decoded data would be larger than an
+     *             array can hold.
+     */
+    public static Batch decodeBatch(final byte[] src, final int[] offsets, final int[] lengths) {
+        checkBatchRanges(offsets, lengths);
+        final int[] outOffsets = new int[offsets.length + 1];
+        long size = 0;
+        for (int i = 0; i < offsets.length; i++) {
+            outOffsets[i] = (int) size;
+            size += decodedLength(src, offsets[i], lengths[i]);
+            checkBatchSize(size);
+        }
+        outOffsets[offsets.length] = (int) size;
+        final byte[] data = new byte[(int) size];
+        for (int i = 0; i < offsets.length; i++) {
+            decode(src, offsets[i], lengths[i], data, outOffsets[i], PAD_DEFAULT);
+        }
+        return new Batch(data, outOffsets);
+    }
+
+    /**
+     * Decodes every item of a batch returned by {@link #encodeBatch(byte[][])}.
+     *
+     * @param encoded
+     *            the batch of Base32 characters.
+     * @return the decoded bytes of each item
+     * @throws IllegalArgumentException
+     *             if the decoded data would be larger than an array can hold.
+     */
+    public static Batch decodeBatch(final Batch encoded) {
+        final int[] offsets = new int[encoded.offsets.length];
+        long size = 0;
+        for (int i = 0; i < encoded.size(); i++) {
+            offsets[i] = (int) size;
+            size += decodedLength(encoded.data, encoded.getOffset(i), encoded.getLength(i));
+            checkBatchSize(size);
+        }
+        offsets[encoded.size()] = (int) size;
+        final byte[] data = new byte[(int) size];
+        for (int i = 0; i < encoded.size(); i++) {
+            decode(encoded.data, encoded.getOffset(i), encoded.getLength(i), data, offsets[i], PAD_DEFAULT);
+        }
+        return new Batch(data, offsets);
+    }
+
+    private static void checkBatchRanges(final int[] offsets, final int[] lengths) {
+        if (offsets.length != lengths.length) {
+            throw new IllegalArgumentException("Got " + offsets.length + " offsets but " + lengths.length
+                    + " lengths");
+        }
+    }
+
+    private static void checkBatchSize(final long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Input arrays too big, the output array would be bigger (" + size
+                    + ") than the specified maximum size of " + Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * <p>
+     * Decodes all of the provided data, starting at inPos, for inAvail bytes. Should be called at least twice: once
+     * with the data to decode, and once with inAvail set to "-1" to alert decoder that EOF has been reached. The "-1"
+     * call is not necessary when decoding, but it doesn't hurt, either.
+     * </p>
+     * <p>
+     * Ignores all non-Base32 characters. This is how chunked (e.g. 76 character) data is handled, since CR and LF are
+     * silently ignored, but has implications for other bytes, too. This method subscribes to the garbage-in,
+     * garbage-out philosophy: it will not check the provided data for validity.
+     * </p>
+     *
+     * @param in
+     *            byte[] array of ascii data to Base32 decode.
+     * @param inPos
+     *            Position to start reading data from.
+     * @param inAvail
+     *            Amount of bytes available from input for encoding.
+     * @param context the context to be used
+     *
+     * Output is written to {@link Context#buffer} as 8-bit octets, using {@link Context#pos} as the buffer position
+     */
+    @Override
+    void decode(final byte[] in, int inPos, final int inAvail, final Context context) {
+        // package protected for access from I/O streams
+
+        if (context.eof) {
+            return;
+        }
+        if (inAvail < 0) {
+            context.eof = true;
+        }
+        int i = 0;
+        while (i < inAvail) {
+            if (context.modulus == 0 && inAvail - i >= BYTES_PER_ENCODED_BLOCK) {
+                // on a block boundary: decode whole 8-character blocks until one holds a non-alphabet byte
+                final int consumed = decodeBlocks(in, inPos, (inAvail - i) / BYTES_PER_ENCODED_BLOCK, context);
+                if (consumed > 0) {
+                    inPos += consumed;
+                    i += consumed;
+                    continue;
+                }
+            }
+            i++;
+            final byte b = in[inPos++];
+            final int result = octetDecodeTable[b & MASK_8BITS];
+            if (result >= 0) {
+                context.modulus = (context.modulus+1) % BYTES_PER_ENCODED_BLOCK;
+                // collect decoded bytes
+                context.lbitWorkArea = (context.lbitWorkArea << BITS_PER_ENCODED_BYTE) + result;
+                if (context.modulus == 0) { // we can output the 5 bytes
+                    final byte[] buffer = ensureCapacity(BYTES_PER_UNENCODED_BLOCK, context);
+                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 32) & MASK_8BITS);
+                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 24) & MASK_8BITS);
+                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 16) & MASK_8BITS);
+                    buffer[context.pos++] = (byte) ((context.lbitWorkArea >> 8) & MASK_8BITS);
+                    buffer[context.pos++] = (byte) (context.lbitWorkArea & MASK_8BITS);
+                }
+            } else if (b == padding) {
+                // We're done. Only non-alphabet bytes are compared, and none equals the NO_PAD of unpadded codecs
+                context.eof = true;
+                break;
+            }
+        }
+
+        // Two forms of EOF as far as Base32 decoder is concerned: actual
+        // EOF (-1) and first time '=' character is encountered in stream.
+        // This approach makes the '=' padding characters completely optional.
+        if (context.eof && context.modulus >= 2) { // if modulus < 2, nothing to do
+            final byte[] buffer = ensureCapacity(context.modulus * BITS_PER_ENCODED_BYTE / 8, context);
+            context.pos = decodeTail(context.lbitWorkArea, context.modulus, buffer, context.pos);
+        }
+    }
+
+    /**
+     * <p>
+     * Encodes all of the provided data, starting at inPos, for inAvail bytes. Must be called at least twice: once with
+     * the data to encode, and once with inAvail set to "-1" to alert encoder that EOF has been reached, so flush last
+     * remaining bytes (if not multiple of 5).
+     * </p>
+     *
+     * @param in
+     *            byte[] array of binary data to Base32 encode.
+     * @param inPos
+     *            Position to start reading data from.
+     * @param inAvail
+     *            Amount of bytes available from input for encoding.
+     * @param context the context to be used
+     */
+    @Override
+    void encode(final byte[] in, int inPos, final int inAvail, final Context context) {
+        // package protected for access from I/O streams
+
+        if (context.eof) {
+            return;
+        }
+        // inAvail < 0 is how we're informed of EOF in the underlying data we're
+        // encoding.
+        if (inAvail < 0) {
+            context.eof = true;
+            final int tail = 0 == context.modulus ? 0
+                    : padding != NO_PAD ? BYTES_PER_ENCODED_BLOCK
+                    : (context.modulus * 8 + BITS_PER_ENCODED_BYTE - 1) / BITS_PER_ENCODED_BYTE;
+            // if currentLinePos == 0 we are at the start of a line, so don't add CRLF
+            final int separator = lineLength > 0 && context.currentLinePos + tail > 0 ? lineSeparator.length : 0;
+            if (tail + separator == 0) {
+                return; // no leftovers to process and no line to end
+            }
+            final byte[] buffer = ensureCapacity(tail + separator, context);
+            context.pos = encodeTail(context.lbitWorkArea, context.modulus, buffer, context.pos, padding);
+            context.currentLinePos += tail; // keep track of current line position
+            if (separator > 0) { // add chunk separator if required
+                System.arraycopy(lineSeparator, 0, buffer, context.pos, separator);
+                context.pos += separator;
+            }
+        } else {
+            int i = 0;
+            while (i < inAvail) {
+                if (0 == context.modulus && inAvail - i >= BYTES_PER_UNENCODED_BLOCK) {
+                    // on a block boundary: hand all remaining whole blocks to the bulk loop
+                    final int blocks = (inAvail - i) / BYTES_PER_UNENCODED_BLOCK;
+                    encodeBlocks(in, inPos, blocks, context);
+                    inPos += blocks * BYTES_PER_UNENCODED_BLOCK;
+                    i += blocks * BYTES_PER_UNENCODED_BLOCK;
+                    continue;
+                }
+                i++;
+                context.modulus = (context.modulus+1) % BYTES_PER_UNENCODED_BLOCK;
+                int b = in[inPos++];
+                if (b < 0) {
+                    b += 256;
+                }
+                context.lbitWorkArea = (context.lbitWorkArea << 8) + b; // BITS_PER_BYTE
+                if (0 == context.modulus) { // we have enough bytes to create our output
+                    final boolean endsLine = lineLength > 0
+                            && lineLength <= context.currentLinePos + BYTES_PER_ENCODED_BLOCK;
+                    final byte[] buffer = ensureCapacity(endsLine ? encodeSize : BYTES_PER_ENCODED_BLOCK, context);
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 35) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 30) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 25) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 20) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 15) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 10) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)(context.lbitWorkArea >> 5) & MASK_5BITS];
+                    buffer[context.pos++] = encodeTable[(int)context.lbitWorkArea & MASK_5BITS];
+                    context.currentLinePos += BYTES_PER_ENCODED_BLOCK;
+                    if (lineLength > 0 && lineLength <= context.currentLinePos) {
+                        System.arraycopy(lineSeparator, 0, buffer, context.pos, lineSeparator.length);
+                        context.pos += lineSeparator.length;
+                        context.currentLinePos = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes {@code blocks} whole 5-byte blocks starting at inPos.
+     * <p>
+     * Only called when {@code context.modulus == 0}, so no partial block is pending. The output buffer is sized once
+     * for all blocks (and line separators) and the loop works on locals, writing back to the context at the end.
+     * </p>
+     *
+     * @param in
+     *            byte[] array of binary data to Base32 encode.
+     * @param inPos
+     *            Position to start reading data from.
+     * @param blocks
+     *            Number of whole 5-byte blocks to encode.
+     * @param context the context to be used
+     */
+    private void encodeBlocks(final byte[] in, int inPos, final int blocks, final Context context) {
+        int size = blocks * BYTES_PER_ENCODED_BLOCK;
+        if (lineLength > 0) {
+            size += (context.currentLinePos + size) / lineLength * lineSeparator.length;
+        }
+        final byte[] buffer = ensureCapacity(size, context);
+        int pos = context.pos;
+        int currentLinePos = context.currentLinePos;
+        for (int n = 0; n < blocks; n++) {
+            pos = encodeBlock(readBlock(in, inPos), buffer, pos);
+            inPos += BYTES_PER_UNENCODED_BLOCK;
+            if (lineLength > 0 && lineLength <= (currentLinePos += BYTES_PER_ENCODED_BLOCK)) {
+                System.arraycopy(lineSeparator, 0, buffer, pos, lineSeparator.length);
+                pos += lineSeparator.length;
+                currentLinePos = 0;
+            }
+        }
+        context.pos = pos;
+        context.currentLinePos = currentLinePos;
+    }
+
+    /**
+     * Ensure that the buffer has room for <code>size</code> bytes.
+     * <p>
+     * Unlike {@link #ensureBufferSize(int, Context)}, which only grows the buffer by one step, this grows it as much
+     * as needed so that bulk loops can size their output once.
+     * </p>
+     *
+     * @param size minimum spare space required
+     * @param context the context to be used
+     * @return the buffer
+     */
+    private byte[] ensureCapacity(final int size, final Context context) {
+        if (context.buffer == null) {
+            context.buffer = new byte[Math.max(size, getDefaultBufferSize())];
+            context.pos = 0;
+            context.readPos = 0;
+        } else if (context.buffer.length < context.pos + size) {
+            final byte[] b = new byte[Math.max(context.buffer.length * 2, context.pos + size)];
+            System.arraycopy(context.buffer, 0, b, 0, context.pos);
+            context.buffer = b;
+        }
+        return context.buffer;
+    }
+
+    /**
+     * Reads 5 octets as one 40-bit block. Package private for access from {@link ZBase32Engine}.
+     */
+    static long readBlock(final byte[] in, final int inPos) {
+        return (long) (in[inPos] & MASK_8BITS) << 32
+                | (long) (in[inPos + 1] & MASK_8BITS) << 24
+                | (in[inPos + 2] & MASK_8BITS) << 16
+                | (in[inPos + 3] & MASK_8BITS) << 8
+                | (in[inPos + 4] & MASK_8BITS);
+    }
+
+    /**
+     * Writes one 40-bit block as 8 Base32 characters.
+     *
+     * @return the position after the written characters
+     */
+    private static int encodeBlock(final long block, final byte[] out, int pos) {
+        out[pos++] = encodeTable[(int)(block >> 35) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 30) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 25) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 20) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 15) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 10) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)(block >> 5) & MASK_5BITS];
+        out[pos++] = encodeTable[(int)block & MASK_5BITS];
+        return pos;
+    }
+
+    /**
+     * Decodes up to {@code blocks} whole 8-character blocks starting at inPos, stopping at the first block that
+     * contains a non-alphabet byte (whitespace, pad or garbage) so the caller can handle it leniently.
+     * <p>
+     * Only called when {@code context.modulus == 0}, so no partial block is pending.
+     * </p>
+     *
+     * @param in
+     *            byte[] array of ascii data to Base32 decode.
+     * @param inPos
+     *            Position to start reading data from.
+     * @param blocks
+     *            Maximum number of 8-character blocks to decode.
+     * @param context the context to be used
+     * @return the number of input bytes consumed, a multiple of 8
+     */
+    private int decodeBlocks(final byte[] in, final int inPos, final int blocks, final Context context) {
+        byte[] buffer = context.buffer;
+        int pos = context.pos;
+        int p = inPos;
+        for (int n = 0; n < blocks; n++) {
+            final long block = decodeBlock(in, p);
+            if (block < 0) {
+                break;
+            }
+            if (buffer == null || buffer.length - pos < BYTES_PER_UNENCODED_BLOCK) {
+                // the run may stop early at a separator or pad, so only grow the buffer for a block that decoded:
+                // a buffer presized for the decoded length is then never outgrown
+                context.pos = pos;
+                buffer = ensureCapacity((blocks - n) * BYTES_PER_UNENCODED_BLOCK, context);
+                pos = context.pos;
+            }
+            pos = writeBlock(block, buffer, pos);
+            p += BYTES_PER_ENCODED_BLOCK;
+        }
+        context.pos = pos;
+        return p - inPos;
+    }
+
+    /**
+     * Decodes 8 Base32 characters into one 40-bit block.
+     *
+     * @return the block, or -1 if any of the 8 bytes is not in the alphabet
+     */
+    private static long decodeBlock(final byte[] in, final int inPos) {
+        final int c0 = octetDecodeTable[in[inPos] & MASK_8BITS];
+        final int c1 = octetDecodeTable[in[inPos + 1] & MASK_8BITS];
+        final int c2 = octetDecodeTable[in[inPos + 2] & MASK_8BITS];
+        final int c3 = octetDecodeTable[in[inPos + 3] & MASK_8BITS];
+        final int c4 = octetDecodeTable[in[inPos + 4] & MASK_8BITS];
+        final int c5 = octetDecodeTable[in[inPos + 5] & MASK_8BITS];
+        final int c6 = octetDecodeTable[in[inPos + 6] & MASK_8BITS];
+        final int c7 = octetDecodeTable[in[inPos + 7] & MASK_8BITS];
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+            return -1;
+        }
+        return (long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25
+                | c3 << 20 | c4 << 15 | c5 << 10 | c6 << 5 | c7;
+    }
+
+    /**
+     * Looks up a character in {@link #octetDecodeTable}.
+     *
+     * @return the 5-bit value, or -1 if {@code c} is not in the alphabet
+     */
+    private static int decodeChar(final char c) {
+        return c <= MASK_8BITS ? octetDecodeTable[c] : -1;
+    }
+
+    /**
+     * Decodes 8 Base32 characters into one 40-bit block.
+     *
+     * @return the block, or -1 if any of the 8 characters is not in the alphabet
+     */
+    private static long decodeBlock(final char[] in, final int inPos) {
+        final int c0 = decodeChar(in[inPos]);
+        final int c1 = decodeChar(in[inPos + 1]);
+        final int c2 = decodeChar(in[inPos + 2]);
+        final int c3 = decodeChar(in[inPos + 3]);
+        final int c4 = decodeChar(in[inPos + 4]);
+        final int c5 = decodeChar(in[inPos + 5]);
+        final int c6 = decodeChar(in[inPos + 6]);
+        final int c7 = decodeChar(in[inPos + 7]);
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+            return -1;
+        }
+        return (long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25
+                | c3 << 20 | c4 << 15 | c5 << 10 | c6 << 5 | c7;
+    }
+
+    /**
+     * Decodes 8 Base32 characters into one 40-bit block.
+     *
+     * @return the block, or -1 if any of the 8 characters is not in the alphabet
+     */
+    private static long decodeBlock(final CharSequence in, final int inPos) {
+        final int c0 = decodeChar(in.charAt(inPos));
+        final int c1 = decodeChar(in.charAt(inPos + 1));
+        final int c2 = decodeChar(in.charAt(inPos + 2));
+        final int c3 = decodeChar(in.charAt(inPos + 3));
+        final int c4 = decodeChar(in.charAt(inPos + 4));
+        final int c5 = decodeChar(in.charAt(inPos + 5));
+        final int c6 = decodeChar(in.charAt(inPos + 6));
+        final int c7 = decodeChar(in.charAt(inPos + 7));
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+            return -1;
+        }
+        return (long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25
+                | c3 << 20 | c4 << 15 | c5 << 10 | c6 << 5 | c7;
+    }
+
+    /**
+     * Writes one 40-bit block as 5 octets. Package private for access from {@link ZBase32Engine}.
+     *
+     * @return the position after the written octets
+     */
+    static int writeBlock(final long block, final byte[] out, int pos) {
+        out[pos++] = (byte) (block >> 32);
+        out[pos++] = (byte) (block >> 24);
+        out[pos++] = (byte) (block >> 16);
+        out[pos++] = (byte) (block >> 8);
+        out[pos++] = (byte) block;
+        return pos;
+    }
+
+    /**
+     * Writes the octets held by a partial block of 0 to 7 characters, dropping the trailing partial byte.
+     *
+     * @param work
+     *            the decoded bits, in the low {@code modulus * 5} bits
+     * @param modulus
+     *            the number of characters in the partial block
+     * @return the position after the written octets
+     */
+    private static int decodeTail(long work, final int modulus, final byte[] out, int pos) {
+        //  we ignore partial bytes, i.e. only multiples of 8 count
+        switch (modulus) {
+            case 0 :
+            case 1 : // 5 bits, not enough for a byte
+                break;
+            case 2 : // 10 bits, drop 2 and output one byte
+                out[pos++] = (byte) ((work >> 2) & MASK_8BITS);
+                break;
+            case 3 : // 15 bits, drop 7 and output 1 byte
+                out[pos++] = (byte) ((work >> 7) & MASK_8BITS);
+                break;
+            case 4 : // 20 bits = 2*8 + 4
+                work = work >> 4; // drop 4 bits
+                out[pos++] = (byte) ((work >> 8) & MASK_8BITS);
+                out[pos++] = (byte) ((work) & MASK_8BITS);
+                break;
+            case 5 : // 25bits = 3*8 + 1
+                work = work >> 1;
+                out[pos++] = (byte) ((work >> 16) & MASK_8BITS);
+                out[pos++] = (byte) ((work >> 8) & MASK_8BITS);
+                out[pos++] = (byte) ((work) & MASK_8BITS);
+                break;
+            case 6 : // 30bits = 3*8 + 6
+                work = work >> 6;
+                out[pos++] = (byte) ((work >> 16) & MASK_8BITS);
+                out[pos++] = (byte) ((work >> 8) & MASK_8BITS);
+                out[pos++] = (byte) ((work) & MASK_8BITS);
+                break;
+            case 7 : // 35 = 4*8 +3
+                work = work >> 3;
+                out[pos++] = (byte) ((work >> 24) & MASK_8BITS);
+                out[pos++] = (byte) ((work >> 16) & MASK_8BITS);
+                out[pos++] = (byte) ((work >> 8) & MASK_8BITS);
+                out[pos++] = (byte) ((work) & MASK_8BITS);
+                break;
+            default:
+                // modulus can be 0-7
+                throw new IllegalStateException("Impossible modulus "+modulus);
+        }
+        return pos;
+    }
+
+    /**
+     * Writes a partial block of 0 to 4 octets as its significant Base32 characters, padded to 8 with {@code pad}
+     * unless it is {@link #NO_PAD}.
+     *
+     * @param work
+     *            the octets to encode, in the low {@code modulus * 8} bits
+     * @param modulus
+     *            the number of octets in the partial block
+     * @return the position after the written characters
+     */
+    private static int encodeTail(final long work, final int modulus, final byte[] out, int pos, final int pad) {
+        final int start = pos;
+        switch (modulus) { // % 5
+            case 0 :
+                break;
+            case 1 : // Only 1 octet; take top 5 bits then remainder
+                out[pos++] = encodeTable[(int)(work >> 3) & MASK_5BITS]; // 8-1*5 = 3
+                out[pos++] = encodeTable[(int)(work << 2) & MASK_5BITS]; // 5-3=2
+                break;
+            case 2 : // 2 octets = 16 bits to use
+                out[pos++] = encodeTable[(int)(work >> 11) & MASK_5BITS]; // 16-1*5 = 11
+                out[pos++] = encodeTable[(int)(work >>  6) & MASK_5BITS]; // 16-2*5 = 6
+                out[pos++] = encodeTable[(int)(work >>  1) & MASK_5BITS]; // 16-3*5 = 1
+                out[pos++] = encodeTable[(int)(work <<  4) & MASK_5BITS]; // 5-1 = 4
+                break;
+            case 3 : // 3 octets = 24 bits to use
+                out[pos++] = encodeTable[(int)(work >> 19) & MASK_5BITS]; // 24-1*5 = 19
+                out[pos++] = encodeTable[(int)(work >> 14) & MASK_5BITS]; // 24-2*5 = 14
+                out[pos++] = encodeTable[(int)(work >>  9) & MASK_5BITS]; // 24-3*5 = 9
+                out[pos++] = encodeTable[(int)(work >>  4) & MASK_5BITS]; // 24-4*5 = 4
+                out[pos++] = encodeTable[(int)(work <<  1) & MASK_5BITS]; // 5-4 = 1
+                break;
+            case 4 : // 4 octets = 32 bits to use
+                out[pos++] = encodeTable[(int)(work >> 27) & MASK_5BITS]; // 32-1*5 = 27
+                out[pos++] = encodeTable[(int)(work >> 22) & MASK_5BITS]; // 32-2*5 = 22
+                out[pos++] = encodeTable[(int)(work >> 17) & MASK_5BITS]; // 32-3*5 = 17
+                out[pos++] = encodeTable[(int)(work >> 12) & MASK_5BITS]; // 32-4*5 = 12
+                out[pos++] = encodeTable[(int)(work >>  7) & MASK_5BITS]; // 32-5*5 =  7
+                out[pos++] = encodeTable[(int)(work >>  2) & MASK_5BITS]; // 32-6*5 =  2
+                out[pos++] = encodeTable[(int)(work <<  3) & MASK_5BITS]; // 5-2 = 3
+                break;
+            default:
+                throw new IllegalStateException("Impossible modulus "+modulus);
+        }
+        if (modulus != 0 && pad != NO_PAD) {
+            Arrays.fill(out, pos, start + BYTES_PER_ENCODED_BLOCK, (byte) pad);
+            pos = start + BYTES_PER_ENCODED_BLOCK;
+        }
+        return pos;
+    }
+
+    /**
+     * Reads 5 octets as one 40-bit block, using absolute get.
+     */
+    private static long readBlock(final ByteBuffer in, final int inPos) {
+        return (long) (in.get(inPos) & MASK_8BITS) << 32
+                | (long) (in.get(inPos + 1) & MASK_8BITS) << 24
+                | (in.get(inPos + 2) & MASK_8BITS) << 16
+                | (in.get(inPos + 3) & MASK_8BITS) << 8
+                | (in.get(inPos + 4) & MASK_8BITS);
+    }
+
+    /**
+     * Writes one 40-bit block as 8 Base32 characters, using absolute put.
+     */
+    private static void encodeBlock(final long block, final ByteBuffer out, final int pos) {
+        out.put(pos, encodeTable[(int)(block >> 35) & MASK_5BITS]);
+        out.put(pos + 1, encodeTable[(int)(block >> 30) & MASK_5BITS]);
+        out.put(pos + 2, encodeTable[(int)(block >> 25) & MASK_5BITS]);
+        out.put(pos + 3, encodeTable[(int)(block >> 20) & MASK_5BITS]);
+        out.put(pos + 4, encodeTable[(int)(block >> 15) & MASK_5BITS]);
+        out.put(pos + 5, encodeTable[(int)(block >> 10) & MASK_5BITS]);
+        out.put(pos + 6, encodeTable[(int)(block >> 5) & MASK_5BITS]);
+        out.put(pos + 7, encodeTable[(int)block & MASK_5BITS]);
+    }
+
+    /**
+     * Decodes 8 Base32 characters into one 40-bit block, using absolute get.
+     *
+     * @return the block, or -1 if any of the 8 bytes is not in the alphabet
+     */
+    private static long decodeBlock(final ByteBuffer in, final int inPos) {
+        final int c0 = octetDecodeTable[in.get(inPos) & MASK_8BITS];
+        final int c1 = octetDecodeTable[in.get(inPos + 1) & MASK_8BITS];
+        final int c2 = octetDecodeTable[in.get(inPos + 2) & MASK_8BITS];
+        final int c3 = octetDecodeTable[in.get(inPos + 3) & MASK_8BITS];
+        final int c4 = octetDecodeTable[in.get(inPos + 4) & MASK_8BITS];
+        final int c5 = octetDecodeTable[in.get(inPos + 5) & MASK_8BITS];
+        final int c6 = octetDecodeTable[in.get(inPos + 6) & MASK_8BITS];
+        final int c7 = octetDecodeTable[in.get(inPos + 7) & MASK_8BITS];
+        if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+            return -1;
+        }
+        return (long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25
+                | c3 << 20 | c4 << 15 | c5 << 10 | c6 << 5 | c7;
+    }
+
+    /**
+     * Writes one 40-bit block as 5 octets, using absolute put.
+     */
+    private static void writeBlock(final long block, final ByteBuffer out, final int pos) {
+        out.put(pos, (byte) (block >> 32));
+        out.put(pos + 1, (byte) (block >> 24));
+        out.put(pos + 2, (byte) (block >> 16));
+        out.put(pos + 3, (byte) (block >> 8));
+        out.put(pos + 4, (byte) block);
+    }
+
+    /**
+     * Decodes up to {@code blocks} whole 8-character blocks, stopping before the first one that holds a non-alphabet
+     * byte.
+     *
+     * @return the number of blocks decoded
+     */
+    private static int decodeBlocks(final byte[] in, final int inPos, final int blocks, final byte[] out,
+                                    final int outPos) {
+        for (int n = 0; n < blocks; n++) {
+            final long block = decodeBlock(in, inPos + n * BYTES_PER_ENCODED_BLOCK);
+            if (block < 0) {
+                return n;
+            }
+            writeBlock(block, out, outPos + n * BYTES_PER_UNENCODED_BLOCK);
+        }
+        return blocks;
+    }
+
+    /**
+     * Decodes up to {@code blocks} whole 8-character blocks of direct buffers, using absolute get and put.
+     *
+     * @return the number of blocks decoded
+     * @see #decodeBlocks(byte[], int, int, byte[], int)
+     */
+    private static int decodeBlocks(final ByteBuffer in, final int inPos, final int blocks, final ByteBuffer out,
+                                    final int outPos) {
+        for (int n = 0; n < blocks; n++) {
+            final long block = decodeBlock(in, inPos + n * BYTES_PER_ENCODED_BLOCK);
+            if (block < 0) {
+                return n;
+            }
+            writeBlock(block, out, outPos + n * BYTES_PER_UNENCODED_BLOCK);
+        }
+        return blocks;
+    }
+
+    /**
+     * Copies the first {@code len} bytes of {@code bytes} to {@code out} at {@code pos}, using absolute put. Lets direct
+     * buffers share the byte[] tail code.
+     *
+     * @return the position after the copied bytes
+     */
+    private static int put(final byte[] bytes, final int len, final ByteBuffer out, int pos) {
+        for (int i = 0; i < len; i++) {
+            out.put(pos++, bytes[i]);
+        }
+        return pos;
+    }
+
+    /**
+     * Returns whether or not the {@code octet} is in the Base32 alphabet.
+     *
+     * @param octet
      *            The value to test
      * @return {@code true} if the value is defined in the the Base32 alphabet {@code false} otherwise.
      */
@@ -410,4 +2627,188 @@ public class ZBase32 extends BaseNCodec {
     public boolean isInAlphabet(final byte octet) {
         return octet >= 0 && octet < decodeTable.length && decodeTable[octet] != -1;
     }
+
+    /**
+     * Which bytes besides the z-base-32 alphabet {@link ZBase32#decode(byte[], int, int, DecodePolicy)} accepts.
+     */
+    public enum DecodePolicy {
+        /**
+         * Only alphabet characters, optionally followed by the pads completing the last block. Rejects any other
+         * byte, a length no encoding produces, and non-zero unused bits in the last character.
+         */
+        STRICT,
+        /**
+         * Like {@link #STRICT}, but CR, LF, space and tab are skipped anywhere, so chunked output decodes.
+         */
+        WHITESPACE_ONLY,
+        /**
+         * Every non-alphabet byte is skipped and decoding stops at the first pad, as {@link ZBase32#decode(byte[])}
+         * does.
+         * Nothing is rejected.
+         */
+        LENIENT
+    }
+
+    /**
+     * The result of a batch method: the output of every input, packed one after the other into one array. Item
+     * {@code i} is {@code getData()[getOffset(i), getOffset(i) + getLength(i))}.
+     */
+    public static final class Batch {
+
+        private final byte[] data;
+
+        /** Start of each item, followed by the end of the last one */
+        private final int[] offsets;
+
+        Batch(final byte[] data, final int[] offsets) {
+            this.data = data;
+            this.offsets = offsets;
+        }
+
+        /**
+         * Returns the packed output of all items. The array is not copied.
+         *
+         * @return the packed output
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        /**
+         * Returns the number of items.
+         *
+         * @return the number of items
+         */
+        public int size() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * Returns the position of item {@code i} in {@link #getData()}.
+         *
+         * @param i
+         *            the item index
+         * @return the position of the item
+         */
+        public int getOffset(final int i) {
+            return offsets[i];
+        }
+
+        /**
+         * Returns the length of item {@code i}.
+         *
+         * @param i
+         *            the item index
+         * @return the length of the item
+         */
+        public int getLength(final int i) {
+            return offsets[i + 1] - offsets[i];
+        }
+
+        /**
+         * Returns a copy of item {@code i}.
+         *
+         * @param i
+         *            the item index
+         * @return the bytes of the item
+         */
+        public byte[] get(final int i) {
+            return Arrays.copyOfRange(data, offsets[i], offsets[i + 1]);
+        }
+    }
+
+    /**
+     * Encodes the blocks {@code [lo, hi)} of {@code src} into the same blocks of {@code dst}.
+     */
+    private static final class EncodeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] src;
+        private final byte[] dst;
+        private final int lo;
+        private final int hi;
+
+        EncodeTask(final byte[] src, final byte[] dst, final int lo, final int hi) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > PARALLEL_TASK_BLOCKS) {
+                final int mid = (lo + hi) >>> 1;
+                invokeAll(new EncodeTask(src, dst, lo, mid), new EncodeTask(src, dst, mid, hi));
+                return;
+            }
+            int pos = lo * BYTES_PER_ENCODED_BLOCK;
+            for (int n = lo; n < hi; n++) {
+                pos = encodeBlock(readBlock(src, n * BYTES_PER_UNENCODED_BLOCK), dst, pos);
+            }
+        }
+    }
+
+    /**
+     * Decodes the lines {@code [lo, hi)} of {@code src}, each {@code lineLength} characters and a {@code separator},
+     * into the same lines of {@code dst}. Yields false if any of them does not follow that layout.
+     */
+    private static final class DecodeTask extends RecursiveTask<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] src;
+        private final byte[] dst;
+        private final int lineLength;
+        private final byte[] separator;
+        private final int lo;
+        private final int hi;
+        /** Set by the first task that finds an irregular line, so the others stop instead of decoding in vain */
+        private final AtomicBoolean failed;
+
+        DecodeTask(final byte[] src, final byte[] dst, final int lineLength, final byte[] separator,
+                   final int lo, final int hi, final AtomicBoolean failed) {
+            this.src = src;
+            this.dst = dst;
+            this.lineLength = lineLength;
+            this.separator = separator;
+            this.lo = lo;
+            this.hi = hi;
+            this.failed = failed;
+        }
+
+        @Override
+        protected Boolean compute() {
+            final int blocks = lineLength / BYTES_PER_ENCODED_BLOCK;
+            if ((long) (hi - lo) * blocks > PARALLEL_TASK_BLOCKS && hi - lo > 1) {
+                final int mid = (lo + hi) >>> 1;
+                final DecodeTask left = new DecodeTask(src, dst, lineLength, separator, lo, mid, failed);
+                left.fork();
+                final boolean right = new DecodeTask(src, dst, lineLength, separator, mid, hi, failed).compute();
+                return left.join() && right;
+            }
+            int in = lo * (lineLength + separator.length);
+            int pos = lo * blocks * BYTES_PER_UNENCODED_BLOCK;
+            for (int line = lo; line < hi; line++) {
+                if (failed.get()) {
+                    return false;
+                }
+                for (int n = 0; n < blocks; n++) {
+                    final long block = decodeBlock(src, in);
+                    if (block < 0) {
+                        failed.set(true);
+                        return false;
+                    }
+                    pos = writeBlock(block, dst, pos);
+                    in += BYTES_PER_ENCODED_BLOCK;
+                }
+                for (final byte b : separator) {
+                    if (src[in++] != b) {
+                        failed.set(true);
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
 }
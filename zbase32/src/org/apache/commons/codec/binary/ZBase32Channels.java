@@ -0,0 +1,290 @@
+package org.apache.commons.codec.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CoderResult;
+
+/**
+ * Channel adapters that z-base-32 encode or decode the bytes flowing through a {@link ReadableByteChannel} or
+ * {@link WritableByteChannel}, for use in NIO pipelines where stream wrappers would force byte[] staging.
+ * <p>
+ * The adapters are built on {@link ZBase32#encode(ByteBuffer, ByteBuffer, boolean)} and
+ * {@link ZBase32#decode(ByteBuffer, ByteBuffer, boolean)}: encoding is padded with {@link BaseNCodec#PAD_DEFAULT}
+ * and not chunked, decoding ignores non-Base32 characters and stops at the first pad. A partial block is carried in
+ * a direct buffer from one call to the next, and all buffers are allocated once per adapter, so steady-state
+ * transcoding does not allocate.
+ * </p>
+ * <p>
+ * The wrapped channels must be blocking, and the adapters are not thread-safe. Closing an adapter closes the wrapped
+ * channel; closing a writing adapter first writes the final, padded block.
+ * </p>
+ */
+public final class ZBase32Channels {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** Room for one encoded block, the larger of the two block sizes */
+    private static final int BLOCK_SIZE = 8;
+
+    private ZBase32Channels() {
+    }
+
+    /**
+     * Returns a channel reading the z-base-32 encoding of the bytes read from {@code source}.
+     *
+     * @param source
+     *            the channel with the binary data.
+     * @return the encoding channel
+     */
+    public static ReadableByteChannel encoding(final ReadableByteChannel source) {
+        return new Reader(source, true);
+    }
+
+    /**
+     * Returns a channel reading the bytes decoded from the z-base-32 characters read from {@code source}.
+     *
+     * @param source
+     *            the channel with the ascii data.
+     * @return the decoding channel
+     */
+    public static ReadableByteChannel decoding(final ReadableByteChannel source) {
+        return new Reader(source, false);
+    }
+
+    /**
+     * Returns a channel writing the z-base-32 encoding of the bytes written to it to {@code sink}.
+     *
+     * @param sink
+     *            the channel to write the Base32 characters to.
+     * @return the encoding channel, which must be closed to write the final block
+     */
+    public static WritableByteChannel encoding(final WritableByteChannel sink) {
+        return new Writer(sink, true);
+    }
+
+    /**
+     * Returns a channel writing the bytes decoded from the z-base-32 characters written to it to {@code sink}.
+     *
+     * @param sink
+     *            the channel to write the decoded bytes to.
+     * @return the decoding channel, which must be closed to write the final block
+     */
+    public static WritableByteChannel decoding(final WritableByteChannel sink) {
+        return new Writer(sink, false);
+    }
+
+    private static CoderResult code(final boolean doEncode, final ByteBuffer src, final ByteBuffer dst,
+                                    final boolean endOfInput) {
+        return doEncode ? ZBase32.encode(src, dst, endOfInput) : ZBase32.decode(src, dst, endOfInput);
+    }
+
+    /**
+     * Whether a decode call that started at {@code from} stopped on a pad, which ends the encoded data. Without a pad
+     * it would have stopped at an alphabet or ignored character, never at a consumed pad.
+     */
+    private static boolean consumedPad(final ByteBuffer src, final int from) {
+        final int pos = src.position();
+        return pos > from && src.get(pos - 1) == BaseNCodec.PAD_DEFAULT;
+    }
+
+    /**
+     * Returns a direct buffer with the content of {@code buf} (in fill mode) and room for at least {@code more} bytes.
+     */
+    private static ByteBuffer grow(final ByteBuffer buf, final int more) {
+        final int size = Math.max(buf.capacity() * 2, buf.position() + more);
+        final ByteBuffer b = ByteBuffer.allocateDirect(size);
+        buf.flip();
+        b.put(buf);
+        return b;
+    }
+
+    private static final class Reader implements ReadableByteChannel {
+
+        private final ReadableByteChannel source;
+
+        private final boolean doEncode;
+
+        /** Bytes read from source but not yet coded, in fill mode */
+        private ByteBuffer in = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+        /** Holds one block when the caller's buffer has no room for a whole one, in drain mode */
+        private final ByteBuffer pending = ByteBuffer.allocateDirect(BLOCK_SIZE);
+
+        private boolean eof;
+
+        private boolean done;
+
+        private boolean open = true;
+
+        Reader(final ReadableByteChannel source, final boolean doEncode) {
+            this.source = source;
+            this.doEncode = doEncode;
+            pending.flip();
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            final int start = dst.position();
+            while (dst.hasRemaining()) {
+                if (pending.hasRemaining()) {
+                    final int n = Math.min(pending.remaining(), dst.remaining());
+                    final ByteBuffer slice = pending.duplicate();
+                    slice.limit(pending.position() + n);
+                    dst.put(slice);
+                    pending.position(pending.position() + n);
+                    continue;
+                }
+                if (done) {
+                    break;
+                }
+                in.flip();
+                final int from = in.position();
+                final int before = dst.position();
+                CoderResult result = code(doEncode, in, dst, eof);
+                if (result.isOverflow() && dst.position() == before) {
+                    // not even one block fits in dst: code it into pending and hand it out piecewise
+                    pending.clear();
+                    result = code(doEncode, in, pending, eof);
+                    pending.flip();
+                }
+                final boolean pad = !doEncode && consumedPad(in, from);
+                in.compact();
+                if (result.isOverflow()) {
+                    continue;
+                }
+                if (eof || pad) {
+                    done = true;
+                } else if (pending.hasRemaining()) {
+                    continue;
+                } else if (dst.position() > start) {
+                    break; // return what we have rather than block on source
+                } else {
+                    if (!in.hasRemaining()) {
+                        in = grow(in, DEFAULT_BUFFER_SIZE); // a block spread over a full buffer of ignored bytes
+                    }
+                    final int c = source.read(in);
+                    if (c < 0) {
+                        eof = true;
+                    } else if (c == 0) {
+                        break;
+                    }
+                }
+            }
+            final int n = dst.position() - start;
+            return n == 0 && done && !pending.hasRemaining() ? -1 : n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            open = false;
+            source.close();
+        }
+    }
+
+    private static final class Writer implements WritableByteChannel {
+
+        private final WritableByteChannel sink;
+
+        private final boolean doEncode;
+
+        /** Written bytes of a partial block, in fill mode */
+        private ByteBuffer carry = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+        /** Coded bytes not yet written to sink, in fill mode */
+        private final ByteBuffer out = ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE);
+
+        private boolean done;
+
+        private boolean open = true;
+
+        Writer(final WritableByteChannel sink, final boolean doEncode) {
+            this.sink = sink;
+            this.doEncode = doEncode;
+        }
+
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            final int length = src.remaining();
+            boolean overflow = false;
+            while (!done && (src.hasRemaining() || overflow)) {
+                final ByteBuffer from;
+                if (carry.position() == 0) {
+                    from = src; // nothing carried over: code straight from the caller's buffer
+                } else {
+                    final int n = Math.min(src.remaining(), carry.remaining());
+                    final ByteBuffer slice = src.duplicate();
+                    slice.limit(src.position() + n);
+                    carry.put(slice);
+                    src.position(src.position() + n);
+                    carry.flip();
+                    from = carry;
+                }
+                final int start = from.position();
+                final CoderResult result = code(doEncode, from, out, false);
+                overflow = result.isOverflow();
+                done = !doEncode && consumedPad(from, start);
+                if (from == carry) {
+                    carry.compact();
+                }
+                if (done) {
+                    carry.clear();
+                } else if (overflow) {
+                    flushOut();
+                } else if (from == src) {
+                    if (src.remaining() > carry.remaining()) {
+                        carry = grow(carry, src.remaining());
+                    }
+                    carry.put(src);
+                } else if (!carry.hasRemaining()) {
+                    carry = grow(carry, DEFAULT_BUFFER_SIZE); // a block spread over a full buffer of ignored bytes
+                }
+            }
+            src.position(src.limit()); // anything after the pad is ignored
+            return length;
+        }
+
+        private void flushOut() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                sink.write(out);
+            }
+            out.clear();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                carry.flip();
+                while (code(doEncode, carry, out, true).isOverflow()) {
+                    flushOut();
+                }
+                flushOut();
+            } finally {
+                sink.close();
+            }
+        }
+    }
+}
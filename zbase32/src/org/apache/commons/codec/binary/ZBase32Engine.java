@@ -0,0 +1,314 @@
+package org.apache.commons.codec.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A bulk loop for z-base-32 encoding and decoding of unchunked data.
+ * <p>
+ * Every engine produces exactly the same output as {@link ZBase32#encode(byte[], int, int, byte[], int)} and
+ * {@link ZBase32#decode(byte[], int, int, byte[], int)}: encoding is padded with {@link BaseNCodec#PAD_DEFAULT},
+ * decoding ignores non-Base32 characters and stops at the first pad. They only differ in how the work is done, so
+ * callers can pick the one that is fastest for their payloads. Engines are stateless and thread-safe.
+ * </p>
+ * <p>
+ * {@link #getDefault()} is the scalar engine unless the {@value #ENGINE_PROPERTY} system property names another;
+ * nothing is detected from the JVM or the CPU.
+ * </p>
+ */
+public abstract class ZBase32Engine {
+
+    /**
+     * System property naming the engine returned by {@link #getDefault()}, see {@link #forName(String)}.
+     */
+    public static final String ENGINE_PROPERTY = "zbase32.engine";
+
+    private static final ZBase32Engine SCALAR = new Scalar();
+
+    private static final ZBase32Engine SWAR = new Swar();
+
+    private static final ZBase32Engine PAIR = new Pair();
+
+    /**
+     * Returns the name of this engine, as accepted by {@link #forName(String)}.
+     *
+     * @return the name
+     */
+    public abstract String getName();
+
+    /**
+     * Encodes {@code len} bytes of {@code src} starting at {@code off} into {@code dst} starting at {@code dstOff}.
+     *
+     * @param src
+     *            byte[] array of binary data to Base32 encode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to encode.
+     * @param dst
+     *            Array to write the Base32 characters to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @see ZBase32#encode(byte[], int, int, byte[], int)
+     */
+    public abstract int encode(byte[] src, int off, int len, byte[] dst, int dstOff);
+
+    /**
+     * Decodes {@code len} bytes of {@code src} starting at {@code off} into {@code dst} starting at {@code dstOff}.
+     *
+     * @param src
+     *            byte[] array of ascii data to Base32 decode.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to decode.
+     * @param dst
+     *            Array to write the decoded bytes to.
+     * @param dstOff
+     *            Position to start writing at.
+     * @return the number of bytes written to {@code dst}
+     * @throws IllegalArgumentException
+     *             if {@code dst} has not enough room for the decoded data; nothing is written then.
+     * @see ZBase32#decode(byte[], int, int, byte[], int)
+     */
+    public abstract int decode(byte[] src, int off, int len, byte[] dst, int dstOff);
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    /**
+     * Returns the engine of {@link ZBase32}'s own static methods, which check every 8-character block for
+     * non-alphabet bytes.
+     *
+     * @return the scalar engine
+     */
+    public static ZBase32Engine scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns an engine that decodes each 8-character block from one 64-bit load of the input: a single
+     * branch rejects the block if any byte has bit 7 set or misses the decode table, and the 40-bit value is then
+     * assembled from the word. Blocks that are rejected are handed to the scalar engine from that point on.
+     *
+     * @return the SWAR engine
+     */
+    public static ZBase32Engine swar() {
+        return SWAR;
+    }
+
+    /**
+     * Returns an engine that handles two characters per table access: a 1024-entry table maps each 10-bit group to
+     * both of its characters, so a block takes 4 loads and 4 16-bit stores instead of 8 of each. The table is 2 KiB
+     * and stays L1-resident while encoding.
+     * <p>
+     * Decoding looks up two consecutive octets at once in a 64K-entry table, which yields their 10-bit value or marks
+     * either as invalid, halving the dependent loads per block. That table takes 128 KiB and is only created the first
+     * time this engine decodes. Blocks with an invalid pair are handed to the scalar engine from that point on.
+     * </p>
+     *
+     * @return the pair-table engine
+     */
+    public static ZBase32Engine pairTable() {
+        return PAIR;
+    }
+
+    /**
+     * Returns the engine selected for this JVM: the one named by the {@value #ENGINE_PROPERTY} system property, or
+     * else the {@link #scalar()} engine. The property is read on every call, so a bad name only fails here and
+     * leaves the other factories usable.
+     *
+     * @return the default engine
+     * @throws IllegalArgumentException
+     *             if the property names no engine
+     */
+    public static ZBase32Engine getDefault() {
+        return forName(System.getProperty(ENGINE_PROPERTY, SCALAR.getName()));
+    }
+
+    /**
+     * Returns the engine with the given name.
+     *
+     * @param name
+     *            the engine name, {@code "scalar"}, {@code "swar"} or {@code "pair"}
+     * @return the engine
+     * @throws IllegalArgumentException
+     *             if there is no engine with that name
+     */
+    public static ZBase32Engine forName(final String name) {
+        if (SCALAR.getName().equals(name)) {
+            return SCALAR;
+        }
+        if (SWAR.getName().equals(name)) {
+            return SWAR;
+        }
+        if (PAIR.getName().equals(name)) {
+            return PAIR;
+        }
+        throw new IllegalArgumentException("Unknown ZBase32Engine: " + name);
+    }
+
+    /**
+     * Delegates to the static methods of {@link ZBase32}.
+     */
+    private static final class Scalar extends ZBase32Engine {
+        @Override
+        public String getName() {
+            return "scalar";
+        }
+
+        @Override
+        public int encode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            return ZBase32.encode(src, off, len, dst, dstOff);
+        }
+
+        @Override
+        public int decode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            return ZBase32.decode(src, off, len, dst, dstOff);
+        }
+    }
+
+    /**
+     * Decodes with one 64-bit little-endian load per 8-character block (SIMD within a register).
+     * <p>
+     * The load goes through a wrapped heap {@link ByteBuffer}, which the JIT of JDK 9+ turns into a single
+     * unaligned load; a byte-array {@code VarHandle} would do the same but is not available on Java 8.
+     * </p>
+     */
+    private static final class Swar extends ZBase32Engine {
+        /** Bit 7 of each of the 8 bytes */
+        private static final long HIGH_BITS = 0x8080808080808080L;
+
+        @Override
+        public String getName() {
+            return "swar";
+        }
+
+        @Override
+        public int encode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            return ZBase32.encode(src, off, len, dst, dstOff);
+        }
+
+        @Override
+        public int decode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            ZBase32.checkDecodeRoom(src, off, len, dst, dstOff);
+            final byte[] table = ZBase32.octetDecodeTable;
+            final ByteBuffer words = ByteBuffer.wrap(src).order(ByteOrder.LITTLE_ENDIAN);
+            final int end = off + len;
+            int i = off;
+            int pos = dstOff;
+            while (end - i >= 8) {
+                final long word = words.getLong(i);
+                // masking with 0x7f keeps the lookups in range; bytes with bit 7 set are rejected below anyway
+                final int c0 = table[(int) word & 0x7f];
+                final int c1 = table[(int) (word >>> 8) & 0x7f];
+                final int c2 = table[(int) (word >>> 16) & 0x7f];
+                final int c3 = table[(int) (word >>> 24) & 0x7f];
+                final int c4 = table[(int) (word >>> 32) & 0x7f];
+                final int c5 = table[(int) (word >>> 40) & 0x7f];
+                final int c6 = table[(int) (word >>> 48) & 0x7f];
+                final int c7 = table[(int) (word >>> 56) & 0x7f];
+                if ((word & HIGH_BITS) != 0 | (c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) < 0) {
+                    break;
+                }
+                final long block = (long) c0 << 35 | (long) c1 << 30 | (long) c2 << 25
+                        | c3 << 20 | c4 << 15 | c5 << 10 | c6 << 5 | c7;
+                pos = ZBase32.writeBlock(block, dst, pos);
+                i += 8;
+            }
+            return pos - dstOff + ZBase32.decode(src, i, end - i, dst, pos, BaseNCodec.PAD_DEFAULT);
+        }
+    }
+
+    /**
+     * Encodes and decodes 10 bits at a time through tables of character pairs.
+     * <p>
+     * The pairs are stored with a big-endian {@link ByteBuffer#putShort(int, short)} on the wrapped output, which the
+     * JIT of JDK 9+ turns into a single 16-bit store.
+     * </p>
+     */
+    private static final class Pair extends ZBase32Engine {
+        /** Mask used to extract 10 bits, two Base32 characters */
+        private static final int MASK_10BITS = 0x3ff;
+
+        /** Both characters of every 10-bit value, the first one in the high byte */
+        private static final short[] ENCODE_PAIRS = new short[1 << 10];
+
+        static {
+            for (int i = 0; i < ENCODE_PAIRS.length; i++) {
+                ENCODE_PAIRS[i] = (short) (ZBase32.encodeTable[i >> 5] << 8 | ZBase32.encodeTable[i & 0x1f]);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "pair";
+        }
+
+        @Override
+        public int encode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            final long size = ZBase32.encodedLength(len, true);
+            if (dst.length - dstOff < size) {
+                throw new IllegalArgumentException("dst has room for " + (dst.length - dstOff)
+                        + " bytes, but encoding " + len + " bytes needs " + size);
+            }
+            final short[] pairs = ENCODE_PAIRS;
+            final ByteBuffer out = ByteBuffer.wrap(dst);
+            final int end = off + len;
+            int i = off;
+            int pos = dstOff;
+            while (end - i >= 5) {
+                final long block = ZBase32.readBlock(src, i);
+                out.putShort(pos, pairs[(int) (block >>> 30) & MASK_10BITS]);
+                out.putShort(pos + 2, pairs[(int) (block >>> 20) & MASK_10BITS]);
+                out.putShort(pos + 4, pairs[(int) (block >>> 10) & MASK_10BITS]);
+                out.putShort(pos + 6, pairs[(int) block & MASK_10BITS]);
+                i += 5;
+                pos += 8;
+            }
+            return pos - dstOff + ZBase32.encode(src, i, end - i, dst, pos);
+        }
+
+        @Override
+        public int decode(final byte[] src, final int off, final int len, final byte[] dst, final int dstOff) {
+            ZBase32.checkDecodeRoom(src, off, len, dst, dstOff);
+            final short[] pairs = DecodePairs.TABLE;
+            final int end = off + len;
+            int i = off;
+            int pos = dstOff;
+            while (end - i >= 8) {
+                final int p0 = pairs[(src[i] & 0xff) << 8 | (src[i + 1] & 0xff)];
+                final int p1 = pairs[(src[i + 2] & 0xff) << 8 | (src[i + 3] & 0xff)];
+                final int p2 = pairs[(src[i + 4] & 0xff) << 8 | (src[i + 5] & 0xff)];
+                final int p3 = pairs[(src[i + 6] & 0xff) << 8 | (src[i + 7] & 0xff)];
+                if ((p0 | p1 | p2 | p3) < 0) {
+                    break;
+                }
+                pos = ZBase32.writeBlock((long) p0 << 30 | (long) p1 << 20 | p2 << 10 | p3, dst, pos);
+                i += 8;
+            }
+            return pos - dstOff + ZBase32.decode(src, i, end - i, dst, pos, BaseNCodec.PAD_DEFAULT);
+        }
+    }
+
+    /**
+     * Holder of the two-character decode table, so that its 128 KiB are only allocated and filled the first time
+     * the pair engine decodes.
+     */
+    private static final class DecodePairs {
+        /** The 10-bit value of every pair of octets, or -1 if either is not in the alphabet */
+        static final short[] TABLE = new short[1 << 16];
+
+        static {
+            final byte[] table = ZBase32.octetDecodeTable;
+            for (int i = 0; i < TABLE.length; i++) {
+                final int hi = table[i >> 8];
+                final int lo = table[i & 0xff];
+                TABLE[i] = (short) ((hi | lo) < 0 ? -1 : hi << 5 | lo);
+            }
+        }
+    }
+}
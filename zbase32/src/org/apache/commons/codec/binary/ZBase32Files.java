@@ -0,0 +1,168 @@
+package org.apache.commons.codec.binary;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+
+/**
+ * z-base-32 encoding and decoding of whole files through memory-mapped buffers, for inputs of several GB.
+ * <p>
+ * The input is mapped read-only and the output is mapped writable, one region at a time, and coded with
+ * {@link ZBase32#encode(java.nio.ByteBuffer, java.nio.ByteBuffer, boolean)} and
+ * {@link ZBase32#decode(java.nio.ByteBuffer, java.nio.ByteBuffer, boolean)}, so no data passes through the Java heap.
+ * Encoding regions are a multiple of the 5-byte block, so every region but the last encodes to exactly
+ * {@link ZBase32#encodedLength(int, boolean)} characters and the output is written at precomputed offsets.
+ * </p>
+ * <p>
+ * As elsewhere in {@link ZBase32}, encoding is padded and not chunked, and decoding ignores non-Base32 characters and
+ * stops at the first pad. Both output files are sized to their exact length before anything is written. The decoded
+ * length depends on how many characters are ignored, so decoding first counts them in a read-only pass over the
+ * mapped input, as {@link ZBase32#decodedLength(byte[])} does.
+ * </p>
+ */
+public final class ZBase32Files {
+
+    /** Bytes encoded per mapped region: 16 Mi blocks of 5 bytes */
+    private static final int ENCODE_REGION_SIZE = 5 << 24;
+
+    /** Characters decoded per mapped region: 16 Mi blocks of 8 characters */
+    private static final int DECODE_REGION_SIZE = 8 << 24;
+
+    private ZBase32Files() {
+    }
+
+    /**
+     * Encodes the file {@code in} into the file {@code out}, which is created or replaced.
+     *
+     * @param in
+     *            the file with the binary data.
+     * @param out
+     *            the file to write the Base32 characters to.
+     * @return the number of characters written
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public static long encode(final Path in, final Path out) throws IOException {
+        return encode(in, out, ENCODE_REGION_SIZE);
+    }
+
+    /**
+     * Decodes the file {@code in} into the file {@code out}, which is created or replaced.
+     *
+     * @param in
+     *            the file with the ascii data.
+     * @param out
+     *            the file to write the decoded bytes to.
+     * @return the number of bytes written
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    public static long decode(final Path in, final Path out) throws IOException {
+        return decode(in, out, DECODE_REGION_SIZE);
+    }
+
+    /**
+     * Package private so tests can cross region boundaries with small files.
+     *
+     * @param regionSize
+     *            bytes to map and encode at a time, a multiple of 5.
+     */
+    static long encode(final Path in, final Path out, final int regionSize) throws IOException {
+        try (FileChannel src = FileChannel.open(in, READ);
+             FileChannel dst = FileChannel.open(out, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            final long size = src.size();
+            // regions are whole blocks, so the encoded length adds up region by region
+            final long total = size / regionSize * ZBase32.encodedLength(regionSize, true)
+                    + ZBase32.encodedLength((int) (size % regionSize), true);
+            if (total > 0) {
+                // size the file once rather than letting every mapped region extend it
+                dst.write(ByteBuffer.allocate(1), total - 1);
+            }
+            long inPos = 0;
+            long outPos = 0;
+            while (inPos < size) {
+                final int n = (int) Math.min(regionSize, size - inPos);
+                final int m = (int) ZBase32.encodedLength(n, true);
+                final MappedByteBuffer source = src.map(MapMode.READ_ONLY, inPos, n);
+                final MappedByteBuffer target = dst.map(MapMode.READ_WRITE, outPos, m);
+                // only the last region can end in a partial block
+                ZBase32.encode(source, target, true);
+                inPos += n;
+                outPos += m;
+            }
+            return outPos;
+        }
+    }
+
+    /**
+     * Package private so tests can cross region boundaries with small files.
+     *
+     * @param regionSize
+     *            characters to map and decode at a time.
+     */
+    static long decode(final Path in, final Path out, final int regionSize) throws IOException {
+        try (FileChannel src = FileChannel.open(in, READ);
+             FileChannel dst = FileChannel.open(out, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            final long size = src.size();
+            final long total = decodedLength(src, size, regionSize);
+            if (total > 0) {
+                dst.write(ByteBuffer.allocate(1), total - 1);
+            }
+            long inPos = 0;
+            long outPos = 0;
+            int region = regionSize;
+            while (inPos < size) {
+                final int n = (int) Math.min(region, size - inPos);
+                final boolean last = inPos + n == size;
+                final MappedByteBuffer source = src.map(MapMode.READ_ONLY, inPos, n);
+                // every 8 characters decode to at most 5 bytes, and no region writes past the counted total
+                final long bound = Math.min(n / 8 * 5 + n % 8 * 5 / 8, total - outPos);
+                final MappedByteBuffer target = dst.map(MapMode.READ_WRITE, outPos, bound);
+                ZBase32.decode(source, target, last);
+                final int consumed = source.position();
+                inPos += consumed;
+                outPos += target.position();
+                if (consumed > 0 && source.get(consumed - 1) == BaseNCodec.PAD_DEFAULT) {
+                    break; // decoding stops at the first pad
+                }
+                if (consumed == 0 && !last) {
+                    // a single block spread over a whole region of ignored characters
+                    region = (int) Math.min(Integer.MAX_VALUE - 8L, region * 2L);
+                }
+            }
+            return outPos;
+        }
+    }
+
+    /**
+     * Returns the number of bytes that decoding the first {@code size} characters of {@code src} yields: the
+     * alphabet characters before the first {@link BaseNCodec#PAD_DEFAULT} are counted, all other characters are
+     * ignored. Unlike {@link ZBase32#decodedLength(byte[])} the count does not fit an {@code int} for large files.
+     */
+    private static long decodedLength(final FileChannel src, final long size, final int regionSize)
+            throws IOException {
+        final byte[] table = ZBase32.octetDecodeTable;
+        long chars = 0;
+        for (long pos = 0; pos < size; pos += regionSize) {
+            final MappedByteBuffer region = src.map(MapMode.READ_ONLY, pos, Math.min(regionSize, size - pos));
+            for (int i = 0, n = region.limit(); i < n; i++) {
+                final byte b = region.get(i);
+                if (b == BaseNCodec.PAD_DEFAULT) {
+                    return chars * 5 / 8;
+                }
+                if (table[b & 0xff] >= 0) {
+                    chars++;
+                }
+            }
+        }
+        return chars * 5 / 8;
+    }
+}
@@ -0,0 +1,239 @@
+package org.apache.commons.codec.binary;
+
+import static org.apache.commons.codec.binary.BaseNCodec.EOF;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.codec.binary.BaseNCodec.Context;
+
+/**
+ * Provides z-base-32 encoding and decoding in a streaming fashion (unlimited size). When encoding the default
+ * lineLength is 0 (no chunking), but this can be overridden by using the appropriate constructor.
+ * <p>
+ * The default behaviour of the ZBase32InputStream is to DECODE, whereas the default behaviour of the
+ * ZBase32OutputStream is to ENCODE. But this behaviour can be overridden by using a different constructor.
+ * </p>
+ * <p>
+ * Unlike {@link Base32InputStream}, the input buffer and the {@link ZBase32} output buffer are allocated once and
+ * reused for every read, so multi-GB streams are processed in constant memory without per-read garbage.
+ * </p>
+ *
+ * @see ZBase32OutputStream
+ */
+public class ZBase32InputStream extends FilterInputStream {
+
+    private final ZBase32 codec;
+
+    private final boolean doEncode;
+
+    /** Fixed buffer for the bytes read from the wrapped stream */
+    private final byte[] inBuffer;
+
+    private final byte[] singleByte = new byte[1];
+
+    private final Context context = new Context();
+
+    /**
+     * Creates a ZBase32InputStream such that all data read is z-base-32-decoded from the original provided
+     * InputStream.
+     *
+     * @param in
+     *            InputStream to wrap.
+     */
+    public ZBase32InputStream(final InputStream in) {
+        this(in, false);
+    }
+
+    /**
+     * Creates a ZBase32InputStream such that all data read is either z-base-32-encoded or z-base-32-decoded from the
+     * original provided InputStream.
+     *
+     * @param in
+     *            InputStream to wrap.
+     * @param doEncode
+     *            true if we should encode all data read from us, false if we should decode.
+     */
+    public ZBase32InputStream(final InputStream in, final boolean doEncode) {
+        this(in, doEncode, new ZBase32());
+    }
+
+    /**
+     * Creates a ZBase32InputStream such that all data read is either z-base-32-encoded or z-base-32-decoded from the
+     * original provided InputStream.
+     *
+     * @param in
+     *            InputStream to wrap.
+     * @param doEncode
+     *            true if we should encode all data read from us, false if we should decode.
+     * @param lineLength
+     *            If doEncode is true, each line of encoded data will contain lineLength characters (rounded down to
+     *            nearest multiple of 8). If lineLength &lt;= 0, the encoded data is not divided into lines. If doEncode
+     *            is false, lineLength is ignored.
+     * @param lineSeparator
+     *            If doEncode is true, each line of encoded data will be terminated with this byte sequence (e.g. \r\n).
+     *            If lineLength &lt;= 0, the lineSeparator is not used. If doEncode is false lineSeparator is ignored.
+     */
+    public ZBase32InputStream(final InputStream in, final boolean doEncode,
+                              final int lineLength, final byte[] lineSeparator) {
+        this(in, doEncode, new ZBase32(lineLength, lineSeparator));
+    }
+
+    private ZBase32InputStream(final InputStream in, final boolean doEncode, final ZBase32 codec) {
+        super(in);
+        this.doEncode = doEncode;
+        this.codec = codec;
+        this.inBuffer = new byte[doEncode ? 4096 : 8192];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return <code>0</code> if the {@link InputStream} has reached <code>EOF</code>,
+     * <code>1</code> otherwise
+     */
+    @Override
+    public int available() throws IOException {
+        // as long as we have not reached EOF, indicate that there is more data available
+        return context.eof && context.pos == context.readPos ? 0 : 1;
+    }
+
+    /**
+     * Marks the current position in this input stream.
+     * <p>The {@link #mark} method of {@link ZBase32InputStream} does nothing.</p>
+     *
+     * @param readLimit the maximum limit of bytes that can be read before the mark position becomes invalid.
+     */
+    @Override
+    public synchronized void mark(final int readLimit) {
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return always returns <code>false</code>
+     */
+    @Override
+    public boolean markSupported() {
+        return false; // not an easy job to support marks
+    }
+
+    /**
+     * Reads one <code>byte</code> from this input stream.
+     *
+     * @return the byte as an integer, or -1 if EOF is reached.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public int read() throws IOException {
+        int r = read(singleByte, 0, 1);
+        while (r == 0) {
+            r = read(singleByte, 0, 1);
+        }
+        if (r > 0) {
+            return singleByte[0] & 0xff;
+        }
+        return EOF;
+    }
+
+    /**
+     * Attempts to read <code>len</code> bytes into the specified <code>b</code> array starting at <code>offset</code>
+     * from this InputStream.
+     *
+     * @param b
+     *            destination byte array
+     * @param offset
+     *            where to start writing the bytes
+     * @param len
+     *            maximum number of bytes to read
+     *
+     * @return number of bytes read
+     * @throws IOException
+     *             if an I/O error occurs.
+     * @throws NullPointerException
+     *             if the byte array parameter is null
+     * @throws IndexOutOfBoundsException
+     *             if offset, len or buffer size are invalid
+     */
+    @Override
+    public int read(final byte[] b, final int offset, final int len) throws IOException {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (offset < 0 || len < 0 || offset > b.length || offset + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return EOF;
+        }
+        final int n = Math.min(context.pos - context.readPos, len);
+        System.arraycopy(context.buffer, context.readPos, b, offset, n);
+        context.readPos += n;
+        return n;
+    }
+
+    /**
+     * Skips over and discards <code>n</code> bytes of coded data, which are coded like {@link #read()} would but not
+     * copied out. Unlike {@link FilterInputStream#skip(long)} this never skips bytes of the wrapped stream.
+     *
+     * @param n
+     *            the number of bytes to be skipped.
+     * @return the actual number of bytes skipped, less than <code>n</code> only at EOF
+     * @throws IllegalArgumentException
+     *             if <code>n</code> is negative.
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative skip length: " + n);
+        }
+        long todo = n;
+        while (todo > 0 && fill()) {
+            final int skipped = (int) Math.min(context.pos - context.readPos, todo);
+            context.readPos += skipped;
+            todo -= skipped;
+        }
+        return n - todo;
+    }
+
+    /**
+     * Codes input until there is output to hand out.
+     *
+     * @return false if the output is drained and the codec reached EOF
+     */
+    private boolean fill() throws IOException {
+        // loop rather than return 0 when a whole input buffer was non-base32 (see CODEC-101)
+        while (context.pos == context.readPos) {
+            if (context.eof) {
+                return false;
+            }
+            // the output buffer is drained: rewind it instead of letting readResults() drop it
+            context.pos = 0;
+            context.readPos = 0;
+            final int c = in.read(inBuffer);
+            if (doEncode) {
+                codec.encode(inBuffer, 0, c, context);
+            } else {
+                codec.decode(inBuffer, 0, c, context);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Repositions this stream to the position at the time the mark method was last called on this input stream.
+     * <p>
+     * The {@link #reset} method of {@link ZBase32InputStream} does nothing except throw an {@link IOException}.
+     *
+     * @throws IOException if this method is invoked
+     */
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -0,0 +1,185 @@
+package org.apache.commons.codec.binary;
+
+import static org.apache.commons.codec.binary.BaseNCodec.EOF;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.codec.binary.BaseNCodec.Context;
+
+/**
+ * Provides z-base-32 encoding and decoding in a streaming fashion (unlimited size). When encoding the default
+ * lineLength is 0 (no chunking), but this can be overridden by using the appropriate constructor.
+ * <p>
+ * The default behaviour of the ZBase32OutputStream is to ENCODE, whereas the default behaviour of the
+ * ZBase32InputStream is to DECODE. But this behaviour can be overridden by using a different constructor.
+ * </p>
+ * <p>
+ * Input is fed to {@link ZBase32} in slices of at most one block-aligned chunk, and the codec output buffer is
+ * written straight to the wrapped stream and then reused, so memory stays constant however much is written.
+ * </p>
+ * <p>
+ * <b>Note:</b> It is mandatory to close the stream after the last byte has been written to it, otherwise the
+ * final padding will be omitted and the resulting data will be incomplete/inconsistent.
+ * </p>
+ *
+ * @see ZBase32InputStream
+ */
+public class ZBase32OutputStream extends FilterOutputStream {
+
+    /** Largest slice handed to the codec at once; bounds the size of its output buffer */
+    private static final int CHUNK_SIZE = 8190;
+
+    private final ZBase32 codec;
+
+    private final boolean doEncode;
+
+    private final byte[] singleByte = new byte[1];
+
+    private final Context context = new Context();
+
+    /**
+     * Creates a ZBase32OutputStream such that all data written is z-base-32-encoded to the original provided
+     * OutputStream.
+     *
+     * @param out
+     *            OutputStream to wrap.
+     */
+    public ZBase32OutputStream(final OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * Creates a ZBase32OutputStream such that all data written is either z-base-32-encoded or z-base-32-decoded to
+     * the original provided OutputStream.
+     *
+     * @param out
+     *            OutputStream to wrap.
+     * @param doEncode
+     *            true if we should encode all data written to us, false if we should decode.
+     */
+    public ZBase32OutputStream(final OutputStream out, final boolean doEncode) {
+        this(out, doEncode, new ZBase32());
+    }
+
+    /**
+     * Creates a ZBase32OutputStream such that all data written is either z-base-32-encoded or z-base-32-decoded to
+     * the original provided OutputStream.
+     *
+     * @param out
+     *            OutputStream to wrap.
+     * @param doEncode
+     *            true if we should encode all data written to us, false if we should decode.
+     * @param lineLength
+     *            If doEncode is true, each line of encoded data will contain lineLength characters (rounded down to
+     *            nearest multiple of 8). If lineLength &lt;= 0, the encoded data is not divided into lines. If doEncode
+     *            is false, lineLength is ignored.
+     * @param lineSeparator
+     *            If doEncode is true, each line of encoded data will be terminated with this byte sequence (e.g. \r\n).
+     *            If lineLength &lt;= 0, the lineSeparator is not used. If doEncode is false lineSeparator is ignored.
+     */
+    public ZBase32OutputStream(final OutputStream out, final boolean doEncode,
+                               final int lineLength, final byte[] lineSeparator) {
+        this(out, doEncode, new ZBase32(lineLength, lineSeparator));
+    }
+
+    private ZBase32OutputStream(final OutputStream out, final boolean doEncode, final ZBase32 codec) {
+        super(out);
+        this.doEncode = doEncode;
+        this.codec = codec;
+    }
+
+    /**
+     * Writes the specified <code>byte</code> to this output stream.
+     *
+     * @param i
+     *            source byte
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public void write(final int i) throws IOException {
+        singleByte[0] = (byte) i;
+        write(singleByte, 0, 1);
+    }
+
+    /**
+     * Writes <code>len</code> bytes from the specified <code>b</code> array starting at <code>offset</code> to this
+     * output stream.
+     *
+     * @param b
+     *            source byte array
+     * @param offset
+     *            where to start reading the bytes
+     * @param len
+     *            maximum number of bytes to write
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     * @throws NullPointerException
+     *             if the byte array parameter is null
+     * @throws IndexOutOfBoundsException
+     *             if offset, len or buffer size are invalid
+     */
+    @Override
+    public void write(final byte[] b, final int offset, final int len) throws IOException {
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (offset < 0 || len < 0 || offset > b.length || offset + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int pos = offset;
+        final int end = offset + len;
+        while (pos < end) {
+            final int n = Math.min(CHUNK_SIZE, end - pos);
+            if (doEncode) {
+                codec.encode(b, pos, n, context);
+            } else {
+                codec.decode(b, pos, n, context);
+            }
+            drain();
+            pos += n;
+        }
+    }
+
+    /** Writes whatever the codec has produced to the wrapped stream and rewinds its buffer for reuse */
+    private void drain() throws IOException {
+        final int avail = context.pos - context.readPos;
+        if (avail > 0) {
+            out.write(context.buffer, context.readPos, avail);
+        }
+        context.pos = 0;
+        context.readPos = 0;
+    }
+
+    /**
+     * Flushes this output stream and forces any buffered output bytes to be written out to the stream.
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Closes this output stream and releases any system resources associated with the stream.
+     *
+     * @throws IOException
+     *             if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        // Notify encoder of EOF (-1).
+        if (doEncode) {
+            codec.encode(singleByte, 0, EOF, context);
+        } else {
+            codec.decode(singleByte, 0, EOF, context);
+        }
+        flush();
+        out.close();
+    }
+}
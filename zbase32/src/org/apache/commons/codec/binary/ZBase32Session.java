@@ -0,0 +1,220 @@
+package org.apache.commons.codec.binary;
+
+import static org.apache.commons.codec.binary.BaseNCodec.EOF;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.codec.binary.BaseNCodec.Context;
+
+/**
+ * A reusable, single-threaded encoding or decoding session of a {@link ZBase32} codec, in the spirit of
+ * {@link java.nio.charset.CharsetEncoder}. Use {@link ZBase32#newEncoderSession()} and
+ * {@link ZBase32#newDecoderSession()} to get one.
+ * <p>
+ * A session owns one {@link Context} and its output buffer, and keeps both from one value to the next: once the
+ * buffer has grown to fit the largest value, coding allocates nothing. The output is returned as a view of that
+ * buffer, which is only valid until the session is used again, or copied into a caller's {@link ByteBuffer}.
+ * </p>
+ * <p>
+ * A value is coded with one call to {@link Encoder#encode(byte[], int, int)} or
+ * {@link Decoder#decode(byte[], int, int)}, or piecewise with {@link #update(byte[], int, int)} calls and a
+ * {@link #finish()}, after which the session must be {@link #reset()} before the next value. Sessions are not
+ * thread-safe.
+ * </p>
+ */
+public abstract class ZBase32Session {
+
+    private static final byte[] EMPTY = {};
+
+    final ZBase32 codec;
+
+    final Context context = new Context();
+
+    /** View of the context buffer handed out by {@link #finish()}, rewrapped when the buffer grows */
+    private ByteBuffer view;
+
+    ZBase32Session(final ZBase32 codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Codes {@code inAvail} bytes of {@code in} starting at {@code inPos} into {@link #context}, or finishes the value
+     * if {@code inAvail} is {@link BaseNCodec#EOF}.
+     */
+    abstract void code(byte[] in, int inPos, int inAvail);
+
+    /**
+     * Discards any pending input and output so the session can start a new value. The output buffer is kept.
+     *
+     * @return this session
+     */
+    public ZBase32Session reset() {
+        context.pos = 0;
+        context.readPos = 0;
+        context.modulus = 0;
+        context.lbitWorkArea = 0;
+        context.currentLinePos = 0;
+        context.eof = false;
+        return this;
+    }
+
+    /**
+     * Codes the next {@code len} bytes of the current value.
+     *
+     * @param src
+     *            the array holding the next bytes.
+     * @param off
+     *            Position to start reading data from.
+     * @param len
+     *            Amount of bytes to code.
+     * @throws IllegalStateException
+     *             if the value was finished and the session not reset since.
+     */
+    public void update(final byte[] src, final int off, final int len) {
+        if (context.eof) {
+            throw new IllegalStateException("Value already finished, call reset() first");
+        }
+        code(src, off, len);
+    }
+
+    /**
+     * Finishes the current value and returns its output.
+     *
+     * @return a view of the output, positioned at its start and limited at its end. The view and its backing array
+     *         belong to the session and are overwritten by its next use.
+     */
+    public ByteBuffer finish() {
+        code(EMPTY, 0, EOF);
+        final byte[] buffer = context.buffer == null ? EMPTY : context.buffer;
+        if (view == null || view.array() != buffer) {
+            view = ByteBuffer.wrap(buffer);
+        }
+        view.clear();
+        view.limit(context.pos);
+        view.position(context.readPos);
+        return view;
+    }
+
+    /**
+     * Finishes the current value and copies its output into {@code dst}.
+     *
+     * @param dst
+     *            the buffer to put the output into, heap or direct.
+     * @return the number of bytes put into {@code dst}
+     * @throws java.nio.BufferOverflowException
+     *             if {@code dst} has not enough room for the output; nothing is put into it then.
+     */
+    public int finish(final ByteBuffer dst) {
+        final ByteBuffer output = finish();
+        final int n = output.remaining();
+        dst.put(output);
+        return n;
+    }
+
+    /**
+     * A session encoding binary data to z-base-32 characters, with the line length, separator and pad of its codec.
+     */
+    public static final class Encoder extends ZBase32Session {
+
+        Encoder(final ZBase32 codec) {
+            super(codec);
+        }
+
+        @Override
+        void code(final byte[] in, final int inPos, final int inAvail) {
+            codec.encode(in, inPos, inAvail, context);
+        }
+
+        /**
+         * Encodes {@code len} bytes of {@code src} starting at {@code off} as one value.
+         *
+         * @param src
+         *            byte[] array of binary data to Base32 encode.
+         * @param off
+         *            Position to start reading data from.
+         * @param len
+         *            Amount of bytes to encode.
+         * @return a view of the Base32 characters, see {@link #finish()}
+         */
+        public ByteBuffer encode(final byte[] src, final int off, final int len) {
+            reset();
+            code(src, off, len);
+            return finish();
+        }
+
+        /**
+         * Encodes {@code len} bytes of {@code src} starting at {@code off} as one value into {@code dst}.
+         *
+         * @param src
+         *            byte[] array of binary data to Base32 encode.
+         * @param off
+         *            Position to start reading data from.
+         * @param len
+         *            Amount of bytes to encode.
+         * @param dst
+         *            the buffer to put the Base32 characters into, heap or direct.
+         * @return the number of bytes put into {@code dst}
+         * @throws java.nio.BufferOverflowException
+         *             if {@code dst} has not enough room for the output.
+         */
+        public int encode(final byte[] src, final int off, final int len, final ByteBuffer dst) {
+            reset();
+            code(src, off, len);
+            return finish(dst);
+        }
+    }
+
+    /**
+     * A session decoding z-base-32 characters to binary data. Like {@link ZBase32#decode(byte[])}, non-Base32
+     * characters are ignored and with a padded codec the value ends at the first pad.
+     */
+    public static final class Decoder extends ZBase32Session {
+
+        Decoder(final ZBase32 codec) {
+            super(codec);
+        }
+
+        @Override
+        void code(final byte[] in, final int inPos, final int inAvail) {
+            codec.decode(in, inPos, inAvail, context);
+        }
+
+        /**
+         * Decodes {@code len} bytes of {@code src} starting at {@code off} as one value.
+         *
+         * @param src
+         *            byte[] array of ascii data to Base32 decode.
+         * @param off
+         *            Position to start reading data from.
+         * @param len
+         *            Amount of bytes to decode.
+         * @return a view of the decoded bytes, see {@link #finish()}
+         */
+        public ByteBuffer decode(final byte[] src, final int off, final int len) {
+            reset();
+            code(src, off, len);
+            return finish();
+        }
+
+        /**
+         * Decodes {@code len} bytes of {@code src} starting at {@code off} as one value into {@code dst}.
+         *
+         * @param src
+         *            byte[] array of ascii data to Base32 decode.
+         * @param off
+         *            Position to start reading data from.
+         * @param len
+         *            Amount of bytes to decode.
+         * @param dst
+         *            the buffer to put the decoded bytes into, heap or direct.
+         * @return the number of bytes put into {@code dst}
+         * @throws java.nio.BufferOverflowException
+         *             if {@code dst} has not enough room for the output.
+         */
+        public int decode(final byte[] src, final int off, final int len, final ByteBuffer dst) {
+            reset();
+            code(src, off, len);
+            return finish(dst);
+        }
+    }
+}
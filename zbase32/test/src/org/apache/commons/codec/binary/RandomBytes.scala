@@ -0,0 +1,13 @@
+package org.apache.commons.codec.binary
+
+import scala.util.Random
+
+/** random payloads shared by the specs */
+trait RandomBytes {
+  /** between 0 and `maxLen - 1` random bytes */
+  def randomBytes(maxLen: Int): Array[Byte] = {
+    val bytes = new Array[Byte](Random.nextInt(maxLen))
+    Random.nextBytes(bytes)
+    bytes
+  }
+}
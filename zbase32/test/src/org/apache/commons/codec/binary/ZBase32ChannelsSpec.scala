@@ -0,0 +1,91 @@
+package org.apache.commons.codec.binary
+
+import org.scalatest.{FlatSpec, Matchers}
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream}
+import java.nio.ByteBuffer
+import java.nio.channels.{Channels, ReadableByteChannel, WritableByteChannel}
+
+import scala.util.Random
+
+class ZBase32ChannelsSpec extends FlatSpec with Matchers with RandomBytes {
+  val z = new ZBase32()
+
+  /** a channel returning at most a few bytes per read, to exercise the carry between reads */
+  def trickle(bytes: Array[Byte]): ReadableByteChannel = new ReadableByteChannel {
+    private val src = Channels.newChannel(new ByteArrayInputStream(bytes))
+    def read(dst: ByteBuffer): Int = {
+      val window = dst.duplicate()
+      window.limit(math.min(dst.limit(), dst.position() + 1 + Random.nextInt(30)))
+      val n = src.read(window)
+      if (n > 0) dst.position(dst.position() + n)
+      n
+    }
+    def isOpen: Boolean = src.isOpen
+    def close(): Unit = src.close()
+  }
+
+  /** read `in` to the end into randomly sized heap and direct buffers */
+  def readAll(in: ReadableByteChannel): Array[Byte] = {
+    val out = new ByteArrayOutputStream
+    var n = 0
+    while (n >= 0) {
+      val size = 1 + Random.nextInt(50)
+      val dst = if (Random.nextBoolean()) ByteBuffer.allocate(size) else ByteBuffer.allocateDirect(size)
+      n = in.read(dst)
+      dst.flip()
+      while (dst.hasRemaining) out.write(dst.get())
+    }
+    in.close()
+    out.toByteArray
+  }
+
+  /** write `bytes` to the channel made by `wrap` in randomly sized pieces */
+  def writeAll(bytes: Array[Byte])(wrap: WritableByteChannel => WritableByteChannel): Array[Byte] = {
+    val sink = new ByteArrayOutputStream
+    val out = wrap(Channels.newChannel(sink))
+    var pos = 0
+    while (pos < bytes.length) {
+      val n = math.min(Random.nextInt(100), bytes.length - pos)
+      out.write(ByteBuffer.wrap(bytes, pos, n)) shouldEqual n
+      pos += n
+    }
+    out.close()
+    sink.toByteArray
+  }
+
+  "ZBase32Channels" should "encode and decode readable channels the same as ZBase32" in {
+    for (_ <- 0 to 30) {
+      val bytes = randomBytes(20000)
+      val encoded = z.encode(bytes)
+      readAll(ZBase32Channels.encoding(trickle(bytes))) shouldEqual encoded
+      readAll(ZBase32Channels.decoding(trickle(encoded))) shouldEqual bytes
+      val chunked = new ZBase32(16).encode(bytes)
+      readAll(ZBase32Channels.decoding(trickle(chunked))) shouldEqual bytes
+    }
+  }
+
+  it should "encode and decode writable channels the same as ZBase32" in {
+    for (_ <- 0 to 30) {
+      val bytes = randomBytes(20000)
+      val encoded = z.encode(bytes)
+      writeAll(bytes)(ZBase32Channels.encoding) shouldEqual encoded
+      writeAll(encoded)(ZBase32Channels.decoding) shouldEqual bytes
+      val chunked = new ZBase32(16).encode(bytes)
+      writeAll(chunked)(ZBase32Channels.decoding) shouldEqual bytes
+    }
+  }
+
+  it should "stop decoding at the pad" in {
+    val encoded = z.encode(Array[Byte](1, 2, 3)) ++ "ybndrfg8".getBytes("US-ASCII")
+    readAll(ZBase32Channels.decoding(trickle(encoded))) shouldEqual Array[Byte](1, 2, 3)
+    writeAll(encoded)(ZBase32Channels.decoding) shouldEqual Array[Byte](1, 2, 3)
+  }
+
+  it should "carry a block spread over more than a buffer of ignored bytes" in {
+    val encoded = z.encode(Array[Byte](1, 2, 3, 4, 5))
+    val spaced = encoded.take(4) ++ Array.fill[Byte](20000)(' ') ++ encoded.drop(4)
+    readAll(ZBase32Channels.decoding(trickle(spaced))) shouldEqual Array[Byte](1, 2, 3, 4, 5)
+    writeAll(spaced)(ZBase32Channels.decoding) shouldEqual Array[Byte](1, 2, 3, 4, 5)
+  }
+}
@@ -0,0 +1,63 @@
+package org.apache.commons.codec.binary
+
+import org.scalatest.{FlatSpec, Matchers}
+
+import scala.util.Random
+
+class ZBase32EngineSpec extends FlatSpec with Matchers with RandomBytes {
+  val engines =
+    Seq(ZBase32Engine.scalar(), ZBase32Engine.swar(), ZBase32Engine.pairTable())
+
+  def encode(engine: ZBase32Engine, bytes: Array[Byte]): Array[Byte] = {
+    val dst = new Array[Byte](ZBase32.encodedLength(bytes.length, true).toInt)
+    engine.encode(bytes, 0, bytes.length, dst, 0) shouldEqual dst.length
+    dst
+  }
+
+  def decode(engine: ZBase32Engine, encoded: Array[Byte]): Array[Byte] = {
+    val dst = new Array[Byte](ZBase32.decodedLength(encoded))
+    engine.decode(encoded, 0, encoded.length, dst, 0) shouldEqual dst.length
+    dst
+  }
+
+  "ZBase32Engine" should "encode the same as ZBase32" in {
+    for (engine <- engines; _ <- 0 to 50) {
+      val bytes = randomBytes(1000)
+      encode(engine, bytes) shouldEqual new ZBase32().encode(bytes)
+    }
+  }
+
+  it should "decode the same as ZBase32, including separators, upper case and garbage" in {
+    for (engine <- engines; lineLength <- Seq(0, 64, 76); _ <- 0 to 50) {
+      val bytes = randomBytes(1000)
+      val encoded = new ZBase32(lineLength).encode(bytes)
+      decode(engine, encoded) shouldEqual bytes
+      val noisy = encoded.map(b => if (Random.nextInt(100) == 0) Random.nextInt(256).toByte else b)
+      decode(engine, noisy) shouldEqual new ZBase32().decode(noisy)
+      decode(engine, noisy.map(b => Character.toUpperCase(b.toChar).toByte)) shouldEqual
+        new ZBase32().decode(noisy.map(b => Character.toUpperCase(b.toChar).toByte))
+    }
+  }
+
+  it should "decode arbitrary bytes the same as ZBase32" in {
+    for (engine <- engines; _ <- 0 to 50) {
+      val garbage = randomBytes(1000)
+      decode(engine, garbage) shouldEqual new ZBase32().decode(garbage)
+    }
+  }
+
+  it should "be selectable by name" in {
+    for (engine <- engines) ZBase32Engine.forName(engine.getName) shouldBe theSameInstanceAs(engine)
+    engines should contain(ZBase32Engine.getDefault())
+    an[IllegalArgumentException] should be thrownBy ZBase32Engine.forName("nope")
+  }
+
+  it should "reject a bad engine property only in getDefault" in {
+    System.setProperty(ZBase32Engine.ENGINE_PROPERTY, "nope")
+    try {
+      an[IllegalArgumentException] should be thrownBy ZBase32Engine.getDefault()
+      ZBase32Engine.scalar().getName shouldEqual "scalar"
+    } finally System.clearProperty(ZBase32Engine.ENGINE_PROPERTY)
+    ZBase32Engine.getDefault() shouldBe theSameInstanceAs(ZBase32Engine.scalar())
+  }
+}
@@ -0,0 +1,67 @@
+package org.apache.commons.codec.binary
+
+import org.scalatest.{FlatSpec, Matchers}
+
+import java.nio.file.Files
+
+import scala.util.Random
+
+class ZBase32FilesSpec extends FlatSpec with Matchers {
+  val z = new ZBase32()
+
+  def withFiles(test: (java.nio.file.Path, java.nio.file.Path) => Unit): Unit = {
+    val in = Files.createTempFile("zbase32", ".in")
+    val out = Files.createTempFile("zbase32", ".out")
+    try test(in, out) finally {
+      Files.delete(in)
+      Files.delete(out)
+    }
+  }
+
+  "ZBase32Files" should "encode and decode files the same as ZBase32, across regions" in withFiles { (in, out) =>
+    for (region <- Seq(5, 40, 1 << 20); _ <- 0 to 10) {
+      val bytes = new Array[Byte](Random.nextInt(1000))
+      Random.nextBytes(bytes)
+      Files.write(in, bytes)
+      val encoded = z.encode(bytes)
+      ZBase32Files.encode(in, out, region) shouldEqual encoded.length
+      Files.readAllBytes(out) shouldEqual encoded
+
+      val chunked = new ZBase32(16).encode(bytes)
+      Files.write(in, chunked)
+      ZBase32Files.decode(in, out, region + 3) shouldEqual bytes.length
+      Files.readAllBytes(out) shouldEqual bytes
+    }
+  }
+
+  it should "size the encoded file exactly, replacing a longer one" in withFiles { (in, out) =>
+    for (n <- Seq(0, 1, 5, 12)) {
+      Files.write(out, new Array[Byte](100))
+      Files.write(in, new Array[Byte](n))
+      ZBase32Files.encode(in, out, 5)
+      Files.size(out) shouldEqual ZBase32.encodedLength(n, true)
+    }
+  }
+
+  it should "size the decoded file exactly, replacing a longer one" in withFiles { (in, out) =>
+    for (n <- Seq(0, 1, 5, 12)) {
+      Files.write(out, new Array[Byte](100))
+      Files.write(in, new ZBase32(8).encode(new Array[Byte](n)))
+      ZBase32Files.decode(in, out, 8) shouldEqual n
+      Files.size(out) shouldEqual n
+    }
+  }
+
+  it should "stop decoding at the pad" in withFiles { (in, out) =>
+    Files.write(in, z.encode(Array[Byte](1, 2, 3)) ++ "ybndrfg8".getBytes("US-ASCII"))
+    ZBase32Files.decode(in, out) shouldEqual 3
+    Files.readAllBytes(out) shouldEqual Array[Byte](1, 2, 3)
+  }
+
+  it should "handle a block spread over more than a region" in withFiles { (in, out) =>
+    val encoded = z.encode(Array[Byte](1, 2, 3, 4, 5))
+    Files.write(in, encoded.take(4) ++ Array.fill[Byte](100)(' ') ++ encoded.drop(4))
+    ZBase32Files.decode(in, out, 16) shouldEqual 5
+    Files.readAllBytes(out) shouldEqual Array[Byte](1, 2, 3, 4, 5)
+  }
+}
@@ -0,0 +1,23 @@
+package org.apache.commons.codec.binary;
+
+/**
+ * Calls the static String entry points of {@link ZBase32} from Java. Java resolves overloads against the inherited
+ * instance methods differently than Scala, so a static overload that collides with one only fails to compile here.
+ */
+final class ZBase32JavaCallSites {
+
+    private ZBase32JavaCallSites() {
+    }
+
+    static byte[] decodeChars(final String encoded) {
+        return ZBase32.decodeChars(encoded);
+    }
+
+    static int decodeChars(final String encoded, final byte[] dst, final int dstOff) {
+        return ZBase32.decodeChars(encoded, dst, dstOff);
+    }
+
+    static int decodedLength(final String encoded) {
+        return ZBase32.decodedLength(encoded);
+    }
+}
@@ -0,0 +1,66 @@
+package org.apache.commons.codec.binary
+
+import org.scalatest.{FlatSpec, Matchers}
+
+import java.nio.{BufferOverflowException, ByteBuffer}
+
+import scala.util.Random
+
+class ZBase32SessionSpec extends FlatSpec with Matchers with RandomBytes {
+  def toArray(view: ByteBuffer): Array[Byte] = {
+    val a = new Array[Byte](view.remaining())
+    view.duplicate().get(a)
+    a
+  }
+
+  "ZBase32Session" should "encode and decode many values the same as ZBase32" in {
+    for (lineLength <- Seq(0, 16)) {
+      val z = new ZBase32(lineLength)
+      val encoder = z.newEncoderSession()
+      val decoder = z.newDecoderSession()
+      for (_ <- 0 to 200) {
+        val bytes = randomBytes(100)
+        val encoded = z.encode(bytes)
+        toArray(encoder.encode(bytes, 0, bytes.length)) shouldEqual (if (bytes.isEmpty) bytes else encoded)
+        toArray(decoder.decode(encoded, 0, encoded.length)) shouldEqual bytes
+      }
+    }
+  }
+
+  it should "reuse its output buffer" in {
+    val encoder = new ZBase32().newEncoderSession()
+    val first = encoder.encode(Array[Byte](1, 2, 3), 0, 3)
+    val second = encoder.encode(Array[Byte](4, 5, 6, 7, 8, 9), 0, 6)
+    second should be theSameInstanceAs first
+    toArray(second) shouldEqual new ZBase32().encode(Array[Byte](4, 5, 6, 7, 8, 9))
+  }
+
+  it should "code a value piecewise and refuse input after finishing" in {
+    val z = new ZBase32(16)
+    val encoder = z.newEncoderSession()
+    for (_ <- 0 to 20) {
+      val bytes = randomBytes(300)
+      encoder.reset()
+      var pos = 0
+      while (pos < bytes.length) {
+        val n = math.min(Random.nextInt(13), bytes.length - pos)
+        encoder.update(bytes, pos, n)
+        pos += n
+      }
+      toArray(encoder.finish()) shouldEqual (if (bytes.isEmpty) bytes else z.encode(bytes))
+      an[IllegalStateException] should be thrownBy encoder.update(bytes, 0, bytes.length)
+    }
+  }
+
+  it should "write into a caller's buffer" in {
+    val bytes = randomBytes(100)
+    val encoded = new ZBase32().encode(bytes)
+    val dst = ByteBuffer.allocateDirect(encoded.length + 1)
+    new ZBase32().newEncoderSession().encode(bytes, 0, bytes.length, dst) shouldEqual encoded.length
+    dst.flip()
+    toArray(dst) shouldEqual encoded
+    val small = ByteBuffer.allocate(1)
+    val twoBytes = new ZBase32().encode(Array[Byte](1, 2))
+    a[BufferOverflowException] should be thrownBy new ZBase32().newDecoderSession().decode(twoBytes, 0, twoBytes.length, small)
+  }
+}
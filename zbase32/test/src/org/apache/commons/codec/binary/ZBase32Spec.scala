@@ -2,11 +2,24 @@ package org.apache.commons.codec.binary
 
 import org.scalatest.{FlatSpec, Matchers}
 
+import java.nio.ByteBuffer
+import java.nio.charset.CoderResult
+
 import scala.util.Random
 
-class ZBase32Spec extends FlatSpec with Matchers {
+class ZBase32Spec extends FlatSpec with Matchers with RandomBytes {
   val z = new ZBase32()
 
+  /** rfc4648 Base32 output translated to the z-base-32 alphabet */
+  def viaBase32(b32: Base32, bytes: Array[Byte]): Array[Byte] = {
+    val rfc = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567"
+    val tbl = "ybndrfg8ejkmcpqxot1uwisza345h769"
+    b32.encode(bytes).map { c =>
+      val i = rfc.indexOf(c)
+      if (i < 0) c else tbl(i).toByte
+    }
+  }
+
   "ZBase32" should "en/decode same as SZBase32" in {
     for (_ <- 0 to 20) {
       val bytes = new Array[Byte](Random.nextInt(100))
@@ -15,4 +28,428 @@ class ZBase32Spec extends FlatSpec with Matchers {
       z.decode(encoded) shouldEqual bytes //should contain theSameElementsInOrderAs
     }
   }
+
+  it should "encode same as Base32 with the z-base-32 alphabet, with or without chunking" in {
+    for (lineLength <- Seq(0, 8, 16, 76); _ <- 0 to 20) {
+      val bytes = randomBytes(500)
+      new ZBase32(lineLength).encode(bytes) shouldEqual viaBase32(new Base32(lineLength), bytes)
+    }
+  }
+
+  it should "encode the same when input is fed in arbitrary pieces" in {
+    for (lineLength <- Seq(0, 16); _ <- 0 to 20) {
+      val zz = new ZBase32(lineLength)
+      val bytes = randomBytes(500)
+      val context = new BaseNCodec.Context
+      var pos = 0
+      while (pos < bytes.length) {
+        val n = math.min(Random.nextInt(13), bytes.length - pos)
+        zz.encode(bytes, pos, n, context)
+        pos += n
+      }
+      zz.encode(bytes, 0, BaseNCodec.EOF, context)
+      val out = new Array[Byte](context.pos - context.readPos)
+      zz.readResults(out, 0, out.length, context)
+      out shouldEqual (if (bytes.isEmpty) bytes else zz.encode(bytes))
+    }
+  }
+
+  it should "decode chunked, whitespace-separated and padded input" in {
+    for (lineLength <- Seq(0, 8, 16, 76); _ <- 0 to 20) {
+      val bytes = randomBytes(500)
+      val encoded = new ZBase32(lineLength).encode(bytes)
+      z.decode(encoded) shouldEqual bytes
+      val spaced = encoded.flatMap(c => if (Random.nextInt(10) == 0) Array[Byte](' ', c) else Array(c))
+      z.decode(spaced) shouldEqual bytes
+      z.decode(encoded.map(b => Character.toUpperCase(b.toChar).toByte)) shouldEqual bytes
+    }
+  }
+
+  it should "encode and decode statically into the caller's array" in {
+    for (lineLength <- Seq(0, 16); _ <- 0 to 50) {
+      val bytes = randomBytes(200)
+      val off = Random.nextInt(bytes.length + 1)
+      val len = bytes.length - off
+      val expected = z.encode(bytes.slice(off, bytes.length))
+      val dst = new Array[Byte](expected.length + 3)
+      ZBase32.encode(bytes, off, len, dst, 3) shouldEqual expected.length
+      dst.drop(3) shouldEqual expected
+
+      val chunked = new ZBase32(lineLength).encode(bytes)
+      val decoded = new Array[Byte](bytes.length + 2)
+      ZBase32.decode(chunked, 0, chunked.length, decoded, 2) shouldEqual bytes.length
+      decoded.drop(2) shouldEqual bytes
+    }
+  }
+
+  it should "refuse to encode into a too small array" in {
+    an[IllegalArgumentException] should be thrownBy ZBase32.encode(new Array[Byte](6), 0, 6, new Array[Byte](15), 0)
+  }
+
+  it should "refuse to decode into a too small array, writing nothing" in {
+    val encoded = z.encode(Array[Byte](1, 2, 3, 4, 5, 6)) // 16 characters, 6 bytes
+    val chars = new String(encoded, "US-ASCII")
+    val dst = new Array[Byte](6)
+    an[IllegalArgumentException] should be thrownBy ZBase32.decode(encoded, 0, encoded.length, dst, 1)
+    an[IllegalArgumentException] should be thrownBy ZBase32.decode(chars.toCharArray, 0, chars.length, dst, 1)
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeChars(chars, dst, 1)
+    for (engine <- Seq(ZBase32Engine.scalar(), ZBase32Engine.swar(), ZBase32Engine.pairTable())) {
+      an[IllegalArgumentException] should be thrownBy engine.decode(encoded, 0, encoded.length, dst, 1)
+    }
+    dst shouldEqual new Array[Byte](6)
+    // room below the 5-per-8 bound is enough when padding and separators make the data shorter
+    ZBase32.decode(encoded, 0, encoded.length, dst, 0) shouldEqual 6
+    ZBase32.decodeChars(chars, dst, 0) shouldEqual 6
+  }
+
+  it should "compute exact encoded and decoded lengths" in {
+    for (lineLength <- Seq(0, 7, 8, 16, 76); sep <- Seq(Array[Byte]('\n'), Array[Byte]('\r', '\n')); _ <- 0 to 20) {
+      val bytes = randomBytes(200)
+      val zz = new ZBase32(lineLength, sep)
+      val encoded = zz.encode(bytes)
+      ZBase32.encodedLength(bytes.length, true, lineLength, sep.length) shouldEqual encoded.length
+      zz.getEncodedLength(bytes) shouldEqual encoded.length
+      ZBase32.decodedLength(encoded) shouldEqual bytes.length
+      ZBase32.decodedLength(new String(encoded, "US-ASCII")) shouldEqual bytes.length
+    }
+    for (n <- 0 to 20) {
+      ZBase32.encodedLength(n, true) shouldEqual z.encode(new Array[Byte](n)).length
+      ZBase32.encodedLength(n, false) shouldEqual math.ceil(n * 8 / 5.0).toLong
+    }
+  }
+
+  it should "encode only significant characters and ignore pads when unpadded" in {
+    val unpadded = new ZBase32(0, null, false)
+    unpadded.isPadded shouldBe false
+    z.isPadded shouldBe true
+    for (lineLength <- Seq(0, 8, 16, 76); _ <- 0 to 20) {
+      val bytes = randomBytes(200)
+      val padded = new ZBase32(lineLength, Array[Byte]('\r', '\n'))
+      val zz = new ZBase32(lineLength, Array[Byte]('\r', '\n'), false)
+      val encoded = zz.encode(bytes)
+      new String(encoded, "US-ASCII") shouldEqual new String(padded.encode(bytes), "US-ASCII").replace("=", "")
+      ZBase32.encodedLength(bytes.length, false, lineLength, 2) shouldEqual encoded.length
+      zz.getEncodedLength(bytes) shouldEqual encoded.length
+      zz.encodeToString(bytes) shouldEqual new String(encoded, "US-ASCII")
+      zz.decode(encoded) shouldEqual bytes
+      zz.decode(padded.encode(bytes)) shouldEqual bytes
+      zz.decode(new String(encoded, "US-ASCII")) shouldEqual bytes
+      // fed in pieces through a stream-like context
+      val session = zz.newEncoderSession()
+      bytes.grouped(3).foreach(g => session.update(g, 0, g.length))
+      val out = session.finish()
+      val piecewise = new Array[Byte](out.remaining())
+      out.get(piecewise)
+      piecewise shouldEqual encoded
+    }
+    // a pad does not end unpadded decoding
+    unpadded.decode("ybndr=ybndrfg8") shouldEqual ZBase32.decodeChars("ybndrybndrfg8")
+    z.decode("ybndr=ybndrfg8") shouldEqual ZBase32.decodeChars("ybndr")
+    unpadded.decode("ybndr=ybndrfg8".getBytes("US-ASCII")) shouldEqual ZBase32.decodeChars("ybndrybndrfg8")
+  }
+
+  /** run `code` in a loop over small, randomly sized src/dst windows, as a channel pump would */
+  def pump(in: Array[Byte], outLen: Int, direct: Boolean)(
+      code: (ByteBuffer, ByteBuffer, Boolean) => CoderResult): Array[Byte] = {
+    def alloc(n: Int) = if (direct) ByteBuffer.allocateDirect(n) else ByteBuffer.allocate(n)
+    val src = alloc(in.length)
+    src.put(in).flip()
+    val out = alloc(outLen)
+    var done = false
+    var calls = 0
+    while (!done) {
+      calls += 1
+      if (calls > 10 * (in.length + outLen) + 100) fail("no progress after " + calls + " calls")
+      val window = src.duplicate()
+      window.limit(math.min(src.limit(), src.position() + 1 + Random.nextInt(20)))
+      val eoi = window.limit() == src.limit()
+      val dst = out.duplicate()
+      dst.limit(math.min(out.limit(), out.position() + Random.nextInt(20)))
+      val r = code(window, dst, eoi)
+      src.position(window.position())
+      out.position(dst.position())
+      done = eoi && r.isUnderflow
+    }
+    out.flip()
+    val res = new Array[Byte](out.remaining())
+    out.get(res)
+    res
+  }
+
+  it should "encode and decode heap and direct ByteBuffers with partial progress" in {
+    for (direct <- Seq(false, true); _ <- 0 to 20) {
+      val bytes = randomBytes(200)
+      val expected = z.encode(bytes)
+      pump(bytes, expected.length, direct)(ZBase32.encode) shouldEqual expected
+      pump(expected, bytes.length, direct)(ZBase32.decode) shouldEqual bytes
+      val chunked = new ZBase32(16).encode(bytes)
+      pump(chunked, bytes.length, direct)(ZBase32.decode) shouldEqual bytes
+      // separators inside blocks: blocks are then completed one character at a time, often at a window end
+      val ragged = expected.grouped(5).flatMap(_ :+ '\n'.toByte).toArray
+      pump(ragged, bytes.length, direct)(ZBase32.decode) shouldEqual bytes
+    }
+  }
+
+  it should "encode and decode sliced heap buffers and mixed heap/direct pairs" in {
+    def sliced(bytes: Array[Byte]) = {
+      val buffer = ByteBuffer.wrap(new Array[Byte](bytes.length + 3), 3, bytes.length).slice()
+      buffer.put(bytes).flip()
+      buffer.asInstanceOf[ByteBuffer]
+    }
+    def drain(buffer: ByteBuffer) = {
+      buffer.flip()
+      val res = new Array[Byte](buffer.remaining())
+      buffer.get(res)
+      res
+    }
+    for (n <- 0 to 12) {
+      val bytes = new Array[Byte](n)
+      Random.nextBytes(bytes)
+      val expected = z.encode(bytes)
+      for (dst <- Seq(sliced(new Array[Byte](expected.length + 1)), ByteBuffer.allocateDirect(expected.length))) {
+        dst.clear()
+        if (dst.hasArray) dst.limit(expected.length)
+        ZBase32.encode(sliced(bytes), dst, true) shouldEqual CoderResult.UNDERFLOW
+        drain(dst) shouldEqual expected
+      }
+      for (dst <- Seq(sliced(new Array[Byte](n + 1)), ByteBuffer.allocateDirect(n))) {
+        dst.clear()
+        if (dst.hasArray) dst.limit(n)
+        ZBase32.decode(sliced(expected), dst, true) shouldEqual CoderResult.UNDERFLOW
+        drain(dst) shouldEqual bytes
+      }
+    }
+  }
+
+  it should "not decode a block twice when the last character of a window completes it" in {
+    val src = ByteBuffer.wrap("ybnd\nrfg8ybndrfg8".getBytes("US-ASCII"))
+    val window = src.duplicate()
+    window.limit(9)
+    val dst = ByteBuffer.allocate(10)
+    ZBase32.decode(window, dst, false) shouldEqual CoderResult.UNDERFLOW
+    (window.position(), dst.position()) shouldEqual ((9, 5))
+    ZBase32.decode(src.position(9).asInstanceOf[ByteBuffer], dst, true) shouldEqual CoderResult.UNDERFLOW
+    dst.flip()
+    val out = new Array[Byte](dst.remaining())
+    dst.get(out)
+    out shouldEqual ZBase32.decodeChars("ybndrfg8ybndrfg8")
+  }
+
+  it should "report overflow and advance positions" in {
+    val src = ByteBuffer.wrap(Array[Byte](1, 2, 3, 4, 5, 6))
+    val dst = ByteBuffer.allocateDirect(10)
+    ZBase32.encode(src, dst) shouldEqual CoderResult.OVERFLOW
+    (src.position(), dst.position()) shouldEqual ((5, 8))
+    val dst2 = ByteBuffer.allocate(8)
+    ZBase32.encode(src, dst2) shouldEqual CoderResult.UNDERFLOW
+    (src.position(), dst2.position()) shouldEqual ((6, 8))
+  }
+
+  it should "encode to String the same as the bytes" in {
+    for (lineLength <- Seq(0, 16); _ <- 0 to 20) {
+      val zz = new ZBase32(lineLength)
+      val bytes = randomBytes(200)
+      zz.encodeToString(bytes) shouldEqual new String(zz.encode(bytes), "US-ASCII")
+      zz.encodeAsString(bytes) shouldEqual new String(zz.encode(bytes), "US-ASCII")
+    }
+    z.encodeToString(null) shouldBe null
+  }
+
+  it should "decode CharSequence and char[] without converting to bytes" in {
+    for (lineLength <- Seq(0, 16); _ <- 0 to 20) {
+      val bytes = randomBytes(200)
+      val encoded = new ZBase32(lineLength).encodeToString(bytes)
+      z.decode(encoded) shouldEqual bytes
+      ZBase32.decodeChars(new java.lang.StringBuilder(encoded)) shouldEqual bytes
+      val chars = ("  " + encoded + "=").toCharArray
+      ZBase32.decode(chars, 2, chars.length - 2) shouldEqual bytes
+      val dst = new Array[Byte](bytes.length + 1)
+      ZBase32.decode(chars, 2, chars.length - 2, dst, 1) shouldEqual bytes.length
+      dst.drop(1) shouldEqual bytes
+      ZBase32.decodeChars(encoded, dst, 1) shouldEqual bytes.length
+      dst.drop(1) shouldEqual bytes
+    }
+    z.decode(null: String) shouldBe null
+    ZBase32.decodeChars("yb\u0179nd") shouldEqual ZBase32.decodeChars("ybnd")
+  }
+
+  it should "stop a String at a pad above 0x7f" in {
+    val latin = new ZBase32(0, null, 0xa9.toByte)
+    val encoded = latin.encode(Array[Byte](1, 2, 3)) ++ "ybndrfg8".getBytes("US-ASCII")
+    latin.decode(encoded) shouldEqual Array[Byte](1, 2, 3)
+    latin.decode(new String(encoded, "ISO-8859-1")) shouldEqual Array[Byte](1, 2, 3)
+  }
+
+  it should "decode a String statically from Java" in {
+    val bytes = randomBytes(200)
+    val encoded = z.encodeToString(bytes)
+    ZBase32JavaCallSites.decodeChars(encoded) shouldEqual bytes
+    val dst = new Array[Byte](ZBase32JavaCallSites.decodedLength(encoded))
+    ZBase32JavaCallSites.decodeChars(encoded, dst, 0) shouldEqual bytes.length
+    dst shouldEqual bytes
+  }
+
+  it should "decode under each policy, rejecting what it does not allow" in {
+    import ZBase32.DecodePolicy._
+    def ascii(s: String) = s.getBytes("US-ASCII")
+    for (_ <- 0 to 100) {
+      val bytes = randomBytes(200)
+      val padded = z.encode(bytes)
+      val unpadded = new ZBase32(0, null, false).encode(bytes)
+      val chunked = new ZBase32(16).encode(bytes)
+      for (policy <- ZBase32.DecodePolicy.values) {
+        ZBase32.decode(padded, policy) shouldEqual bytes
+        ZBase32.decode(unpadded, policy) shouldEqual bytes
+      }
+      ZBase32.decode(chunked, WHITESPACE_ONLY) shouldEqual bytes
+      ZBase32.decode(chunked, LENIENT) shouldEqual bytes
+      if (bytes.length > 3) {
+        an[IllegalArgumentException] should be thrownBy ZBase32.decode(chunked, STRICT)
+      }
+      ZBase32.decode(Array[Byte]('!') ++ padded ++ Array[Byte]('!'), 1, padded.length, STRICT) shouldEqual bytes
+    }
+    ZBase32.decode(ascii(" yb\tny\r\n"), WHITESPACE_ONLY) shouldEqual ZBase32.decodeChars("ybny")
+    ZBase32.decode(ascii("ybny====\r\n"), WHITESPACE_ONLY) shouldEqual ZBase32.decodeChars("ybny")
+    ZBase32.decode(ascii("yb-nd"), LENIENT) shouldEqual ZBase32.decodeChars("ybnd")
+    for (bad <- Seq("yb-nd", "yb nd", "ybn", "ybnd===", "ybnd=====", "ybnd==y=", "yb=nd", "yb", "ybnk", "=")) {
+      an[IllegalArgumentException] should be thrownBy ZBase32.decode(ascii(bad), STRICT)
+    }
+    for (bad <- Seq("yb-nd", "yb\u000bnd", "ybn", "ybnd=== ", "ybnd==y=", "yb")) {
+      an[IllegalArgumentException] should be thrownBy ZBase32.decode(ascii(bad), WHITESPACE_ONLY)
+    }
+    the[IllegalArgumentException] thrownBy ZBase32.decode(ascii("ybndrfg8ybn-d"), STRICT) should have message
+      "Byte 0x2d at index 11 is not allowed by STRICT decoding"
+  }
+
+  it should "encode and decode longs and ints as fixed-width strings" in {
+    def unpadded(bytes: Array[Byte]) = z.encodeToString(bytes).takeWhile(_ != '=')
+    for (v <- Seq(0L, -1L, Long.MinValue, Long.MaxValue) ++ Seq.fill(50)(Random.nextLong())) {
+      val s = ZBase32.encodeLong(v)
+      s shouldEqual unpadded(ByteBuffer.allocate(8).putLong(v).array())
+      ZBase32.decodeLong(s) shouldEqual v
+      val chars = new Array[Char](14)
+      ZBase32.encodeLong(v, chars, 1) shouldEqual 13
+      new String(chars, 1, 13) shouldEqual s
+      val i = v.toInt
+      val si = ZBase32.encodeInt(i)
+      si shouldEqual unpadded(ByteBuffer.allocate(4).putInt(i).array())
+      ZBase32.decodeInt(si) shouldEqual i
+      val bytes = new Array[Byte](7)
+      ZBase32.encodeInt(i, bytes, 0) shouldEqual 7
+      new String(bytes, "US-ASCII") shouldEqual si
+    }
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeLong("yyyyyyyyyyyy")
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeLong("yyyyyyyyyyyyb") // last bit set
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeInt("yyy yyy")
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeInt("yyyyyyb")
+  }
+
+  it should "encode and decode UUIDs as 26 characters" in {
+    val extremes = for (hi <- Seq(0L, -1L, Long.MinValue); lo <- Seq(0L, -1L, Long.MinValue)) yield new java.util.UUID(hi, lo)
+    for (uuid <- extremes ++ Seq.fill(50)(java.util.UUID.randomUUID())) {
+      val s = ZBase32.encodeUuid(uuid)
+      val bytes = ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits).putLong(uuid.getLeastSignificantBits)
+      s shouldEqual z.encodeToString(bytes.array()).takeWhile(_ != '=')
+      ZBase32.decodeUuid(s) shouldEqual uuid
+    }
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeUuid("y" * 25 + "b") // unused bits set
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeUuid("y" * 25)
+  }
+
+  it should "encode and decode bit lengths as the minimal unpadded characters" in {
+    // examples from the z-base-32 specification
+    ZBase32.encodeBits(Array[Byte](0), 1) shouldEqual "y"
+    ZBase32.encodeBits(Array[Byte](0x80.toByte), 1) shouldEqual "o"
+    ZBase32.encodeBits(Array[Byte](0x40), 2) shouldEqual "e"
+    ZBase32.encodeBits(Array[Byte](0xc0.toByte), 2) shouldEqual "a"
+    ZBase32.encodeBits(Array[Byte](0xff.toByte), 1) shouldEqual "o" // bits past bitLength are ignored
+    ZBase32.encodeBits(new Array[Byte](4), 30).length shouldEqual 6
+    for (_ <- 1 to 200) {
+      val bytes = randomBytes(40)
+      ZBase32.encodeBits(bytes, bytes.length * 8) shouldEqual z.encodeToString(bytes).takeWhile(_ != '=')
+      val bitLength = Random.nextInt(bytes.length * 8 + 1)
+      val s = ZBase32.encodeBits(bytes, bitLength)
+      s.length shouldEqual (bitLength + 4) / 5
+      val decoded = ZBase32.decodeBits(s, bitLength)
+      decoded.length shouldEqual (bitLength + 7) / 8
+      val expected = bytes.take(decoded.length)
+      if (bitLength % 8 != 0) expected(expected.length - 1) = (expected.last & (0xff << (8 - bitLength % 8))).toByte
+      decoded shouldEqual expected
+
+      val v = Random.nextLong()
+      val bits = Random.nextInt(65)
+      val low = if (bits == 64) v else v & ((1L << bits) - 1)
+      val sl = ZBase32.encodeBits(v, bits)
+      sl shouldEqual ZBase32.encodeBits(ByteBuffer.allocate(8).putLong(if (bits == 0) 0 else low << (64 - bits)).array(), bits)
+      ZBase32.decodeBitsAsLong(sl, bits) shouldEqual low
+    }
+    ZBase32.encodeBits(-1L, 64) shouldEqual ZBase32.encodeLong(-1L)
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBits("yyyyy", 30) // wrong length
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBits("yyyyyb", 28) // unused bits set
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBits("yyyyy=", 30)
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBitsAsLong("yyyyyb", 28)
+    an[IllegalArgumentException] should be thrownBy ZBase32.encodeBits(new Array[Byte](1), 9)
+    an[IllegalArgumentException] should be thrownBy ZBase32.encodeBits(0L, 65)
+  }
+
+  it should "encode and decode in parallel the same as serially" in {
+    val pool = new java.util.concurrent.ForkJoinPool(4)
+    try {
+      for (threshold <- Seq(0, 100, Int.MaxValue); _ <- 0 to 20) {
+        val bytes = randomBytes(200000)
+        val encoded = z.encode(bytes)
+        ZBase32.parallelEncode(bytes, pool, threshold) shouldEqual encoded
+        ZBase32.parallelDecode(encoded, pool, threshold) shouldEqual bytes
+        ZBase32.parallelDecode(new ZBase32(76).encode(bytes), pool, threshold) shouldEqual bytes
+        val truncated = encoded.take(Random.nextInt(encoded.length + 1))
+        ZBase32.parallelDecode(truncated, pool, threshold) shouldEqual z.decode(truncated)
+      }
+      ZBase32.parallelEncode(Array.emptyByteArray, pool, 0) shouldEqual Array.emptyByteArray
+      ZBase32.parallelDecode(Array.emptyByteArray, pool, 0) shouldEqual Array.emptyByteArray
+    } finally pool.shutdown()
+  }
+
+  it should "decode chunked input in parallel, detecting or given the layout" in {
+    val pool = new java.util.concurrent.ForkJoinPool(4)
+    try {
+      for (lineLength <- Seq(8, 16, 76, 1024); sep <- Seq(Array[Byte]('\n'), Array[Byte]('\r', '\n')); _ <- 0 to 10) {
+        val bytes = randomBytes(100000)
+        val chunked = new ZBase32(lineLength, sep).encode(bytes)
+        ZBase32.parallelDecode(chunked, pool, 0) shouldEqual bytes
+        ZBase32.parallelDecode(chunked, lineLength, sep, pool, 0) shouldEqual bytes
+        // the wrong layout falls back to serial decoding
+        ZBase32.parallelDecode(chunked, lineLength + 8, sep, pool, 0) shouldEqual bytes
+        val irregular = chunked.flatMap(c => if (Random.nextInt(1000) == 0) Array[Byte](' ', c) else Array(c))
+        ZBase32.parallelDecode(irregular, pool, 0) shouldEqual bytes
+      }
+    } finally pool.shutdown()
+  }
+
+  it should "encode and decode batches into one packed array" in {
+    for (_ <- 0 to 20) {
+      val inputs = Array.fill(Random.nextInt(50))(randomBytes(40))
+      val encoded = ZBase32.encodeBatch(inputs)
+      encoded.size shouldEqual inputs.length
+      for (i <- inputs.indices) encoded.get(i) shouldEqual z.encode(inputs(i))
+      val decoded = ZBase32.decodeBatch(encoded)
+      for (i <- inputs.indices) decoded.get(i) shouldEqual inputs(i)
+      ZBase32.decodeBatch(inputs.map(z.encode)).getData shouldEqual inputs.flatten
+
+      val offsets = inputs.scanLeft(0)(_ + _.length).init
+      val lengths = inputs.map(_.length)
+      val fromRanges = ZBase32.encodeBatch(inputs.flatten, offsets, lengths)
+      fromRanges.getData shouldEqual encoded.getData
+      val encodedOffsets = Array.tabulate(inputs.length)(encoded.getOffset)
+      val encodedLengths = Array.tabulate(inputs.length)(encoded.getLength)
+      ZBase32.decodeBatch(encoded.getData, encodedOffsets, encodedLengths).getData shouldEqual inputs.flatten
+    }
+    an[IllegalArgumentException] should be thrownBy ZBase32.encodeBatch(new Array[Byte](5), Array(0), Array.emptyIntArray)
+  }
+
+  it should "refuse a decoded batch larger than an array" in {
+    // 52 times 64 Mi characters decode to more than 2 GiB
+    val big = Array.fill[Byte](1 << 26)('y')
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBatch(Array.fill(52)(big))
+    an[IllegalArgumentException] should be thrownBy ZBase32.decodeBatch(big, Array.fill(52)(0), Array.fill(52)(big.length))
+  }
 }
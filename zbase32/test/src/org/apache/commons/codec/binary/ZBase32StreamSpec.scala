@@ -0,0 +1,100 @@
+package org.apache.commons.codec.binary
+
+import org.scalatest.{FlatSpec, Matchers}
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, InputStream}
+
+import scala.util.Random
+
+class ZBase32StreamSpec extends FlatSpec with Matchers with RandomBytes {
+  /** read `in` to the end in randomly sized pieces */
+  def readAll(in: InputStream): Array[Byte] = {
+    val out = new ByteArrayOutputStream
+    val buf = new Array[Byte](100)
+    var n = 0
+    while (n >= 0) {
+      n = if (Random.nextInt(10) == 0) {
+        val c = in.read()
+        if (c >= 0) buf(0) = c.toByte
+        if (c < 0) -1 else 1
+      } else in.read(buf, 0, 1 + Random.nextInt(buf.length))
+      if (n > 0) out.write(buf, 0, n)
+    }
+    out.toByteArray
+  }
+
+  /** write `bytes` to a new stream made by `wrap` in randomly sized pieces */
+  def writeAll(bytes: Array[Byte])(wrap: ByteArrayOutputStream => ZBase32OutputStream): Array[Byte] = {
+    val sink = new ByteArrayOutputStream
+    val out = wrap(sink)
+    var pos = 0
+    while (pos < bytes.length) {
+      if (Random.nextInt(10) == 0) {
+        out.write(bytes(pos))
+        pos += 1
+      } else {
+        val n = math.min(1 + Random.nextInt(20000), bytes.length - pos)
+        out.write(bytes, pos, n)
+        pos += n
+      }
+    }
+    out.close()
+    sink.toByteArray
+  }
+
+  "ZBase32InputStream" should "encode and decode the same as ZBase32" in {
+    for (lineLength <- Seq(0, 16, 76); _ <- 0 to 10) {
+      val sep = Array[Byte]('\r', '\n')
+      val bytes = randomBytes(50000)
+      val encoded = new ZBase32(lineLength, sep).encode(bytes)
+      val in = new ZBase32InputStream(new ByteArrayInputStream(bytes), true, lineLength, sep)
+      readAll(in) shouldEqual encoded
+      in.available() shouldEqual 0
+      readAll(new ZBase32InputStream(new ByteArrayInputStream(encoded))) shouldEqual bytes
+    }
+  }
+
+  it should "skip decoded and encoded bytes, not wrapped ones" in {
+    val data = Array.tabulate[Byte](1000)(i => (i * 31 + 7).toByte)
+    val in = new ZBase32InputStream(new ByteArrayInputStream(new ZBase32().encode(data)))
+    in.skip(10) shouldEqual 10
+    in.read() shouldEqual (data(10) & 0xff)
+    in.skip(0) shouldEqual 0
+    in.skip(20000) shouldEqual data.length - 11 // stops at EOF
+    in.read() shouldEqual -1
+    an[IllegalArgumentException] should be thrownBy in.skip(-1)
+
+    val encoded = new ZBase32(16).encode(data)
+    val enc = new ZBase32InputStream(new ByteArrayInputStream(data), true, 16, Array[Byte]('\r', '\n'))
+    enc.skip(100) shouldEqual 100
+    enc.read() shouldEqual (encoded(100) & 0xff)
+  }
+
+  it should "not support mark/reset" in {
+    val in = new ZBase32InputStream(new ByteArrayInputStream(Array[Byte]()))
+    in.markSupported shouldBe false
+    an[java.io.IOException] should be thrownBy in.reset()
+  }
+
+  "ZBase32OutputStream" should "encode and decode the same as ZBase32" in {
+    for (lineLength <- Seq(0, 16, 76); _ <- 0 to 10) {
+      val sep = Array[Byte]('\n')
+      val bytes = randomBytes(50000)
+      val encoded = new ZBase32(lineLength, sep).encode(bytes)
+      writeAll(bytes)(new ZBase32OutputStream(_, true, lineLength, sep)) shouldEqual encoded
+      writeAll(encoded)(new ZBase32OutputStream(_, false)) shouldEqual bytes
+    }
+  }
+
+  it should "round-trip through both streams" in {
+    for (_ <- 0 to 10) {
+      val bytes = randomBytes(50000)
+      val sink = new ByteArrayOutputStream
+      val out = new ZBase32OutputStream(sink)
+      out.write(bytes)
+      out.close()
+      val in = new ZBase32InputStream(new ByteArrayInputStream(sink.toByteArray))
+      readAll(in) shouldEqual bytes
+    }
+  }
+}